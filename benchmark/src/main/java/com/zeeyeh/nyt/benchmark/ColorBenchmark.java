@@ -0,0 +1,101 @@
+package com.zeeyeh.nyt.benchmark;
+
+import com.zeeyeh.nyt.util.ColorUtil;
+import com.zeeyeh.nyt.util.ComponentRenderer;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author LeonKeiran
+ * @description 颜色代码转换基准测试
+ * poolSize 为1时每次转换同一段文本，只测量缓存命中；为4096时轮换超过缓存容量的不同文本，测量未命中时的解析开销
+ * @date 2026/10/17 19:20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColorBenchmark {
+    private final String plain = "Welcome to the server, have fun!";
+    private final String legacy = "&8[&bNytheris&8] &r&aWelcome &e&lplayer&r&a, have fun!";
+    private final String hex = "&8[&bNytheris&8] [#55ff55]Welcome [#ffaa00]&lplayer&r&7!";
+    private final String hexTags = "[#55ff55]Welcome [#ffaa00]player[#aaaaaa]!";
+    // 输入池大小，必须为2的幂
+    @Param({"1", "4096"})
+    private int poolSize;
+    private String[] plainPool;
+    private String[] legacyPool;
+    private String[] hexPool;
+    private String[] hexTagsPool;
+    private String[] gradientPool;
+    private String[] gradientTextPool;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        plainPool = Stubs.inputPool(plain, poolSize);
+        legacyPool = Stubs.inputPool(legacy, poolSize);
+        hexPool = Stubs.inputPool(hex, poolSize);
+        hexTagsPool = Stubs.inputPool(hexTags, poolSize);
+        gradientPool = Stubs.inputPool("[#ff5555]Welcome to the Nytheris server", "[#5555ff]", poolSize);
+        gradientTextPool = Stubs.inputPool("Welcome to the Nytheris server", poolSize);
+    }
+
+    private String next(String[] pool) {
+        return pool[cursor++ & (pool.length - 1)];
+    }
+
+    @Benchmark
+    public String translatePlain() {
+        return ColorUtil.translate(next(plainPool));
+    }
+
+    @Benchmark
+    public String translateLegacy() {
+        return ColorUtil.translate(next(legacyPool));
+    }
+
+    @Benchmark
+    public String translateHex() {
+        return ColorUtil.translate('&', next(hexPool), true);
+    }
+
+    @Benchmark
+    public String translateGradient() {
+        return ColorUtil.translate('&', next(gradientPool), true);
+    }
+
+    @Benchmark
+    public String translateHexTags() {
+        return ColorUtil.translateHex(next(hexTagsPool));
+    }
+
+    @Benchmark
+    public String toGradient() {
+        return ColorUtil.toGradient(next(gradientTextPool), "#ff5555", "#5555ff", true);
+    }
+
+    @Benchmark
+    public Component renderComponent() {
+        return ComponentRenderer.render(next(hexPool));
+    }
+
+    @Benchmark
+    public Component renderGradientComponent() {
+        return ComponentRenderer.render(next(gradientPool));
+    }
+}
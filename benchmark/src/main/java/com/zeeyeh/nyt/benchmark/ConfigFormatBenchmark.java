@@ -0,0 +1,81 @@
+package com.zeeyeh.nyt.benchmark;
+
+import com.zeeyeh.nyt.config.JsonConfiguration;
+import com.zeeyeh.nyt.config.JsonbConfiguration;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author LeonKeiran
+ * @description YAML、JSON与JSONB配置文件解析基准测试，数据模拟生成的掉落表
+ * @date 2026/10/17 19:40
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigFormatBenchmark {
+    @Param({"100", "2000"})
+    private int entries;
+    private String yaml;
+    private String json;
+    private byte[] jsonb;
+
+    @Setup
+    public void setup() {
+        JsonbConfiguration source = new JsonbConfiguration();
+        for (int i = 0; i < entries; i++) {
+            String path = "loot.entry-" + i;
+            source.set(path + ".material", "DIAMOND_SWORD");
+            source.set(path + ".weight", i % 17 + 1);
+            source.set(path + ".chance", (i % 100) / 100.0);
+            source.set(path + ".lore", List.of("&7Tier " + i % 5, "&8Generated"));
+        }
+        YamlConfiguration yamlSource = new YamlConfiguration();
+        for (String key : source.getKeys(true)) {
+            if (!source.isConfigurationSection(key)) {
+                yamlSource.set(key, source.get(key));
+            }
+        }
+        yaml = yamlSource.saveToString();
+        json = source.saveToString();
+        jsonb = source.saveToBytes();
+    }
+
+    @Benchmark
+    public YamlConfiguration yaml() throws InvalidConfigurationException {
+        YamlConfiguration configuration = new YamlConfiguration();
+        configuration.loadFromString(yaml);
+        return configuration;
+    }
+
+    @Benchmark
+    public JsonConfiguration json() throws InvalidConfigurationException {
+        JsonConfiguration configuration = new JsonConfiguration();
+        configuration.loadFromString(json);
+        return configuration;
+    }
+
+    @Benchmark
+    public JsonbConfiguration jsonb() throws InvalidConfigurationException {
+        JsonbConfiguration configuration = new JsonbConfiguration();
+        configuration.loadFromBytes(jsonb);
+        return configuration;
+    }
+}
@@ -0,0 +1,79 @@
+package com.zeeyeh.nyt.benchmark;
+
+import com.zeeyeh.nyt.config.LanguageManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author LeonKeiran
+ * @description 语言翻译与参数替换基准测试
+ * poolSize 为1时参数、缺失的键与临时文本固定不变，只测量缓存命中；为4096时轮换超过缓存容量的不同输入
+ * @date 2026/10/17 19:20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LanguageBenchmark {
+    private LanguageManager languageManager;
+    // 输入池大小，必须为2的幂
+    @Param({"1", "4096"})
+    private int poolSize;
+    private String[] secondsPool;
+    private String[] missingPool;
+    private String[] adhocPool;
+    private String[] playerPool;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        languageManager = Stubs.languageManager("""
+                prefix: "&8[&bNytheris&8] &r"
+                join: "&a{0} joined the game, {1} players online"
+                command:
+                  usage: "&cUsage: /{0} <{1}>"
+                  cooldown: "&cPlease wait {0} seconds before using {1} again"
+                """);
+        secondsPool = Stubs.inputPool("5", poolSize);
+        missingPool = Stubs.inputPool("missing.key", poolSize);
+        adhocPool = Stubs.inputPool("&a{0} joined the game, {1} players online", poolSize);
+        playerPool = Stubs.inputPool("Steve", poolSize);
+    }
+
+    private String next(String[] pool) {
+        return pool[cursor++ & (pool.length - 1)];
+    }
+
+    @Benchmark
+    public String translate() {
+        return languageManager.translate("prefix");
+    }
+
+    @Benchmark
+    public String translateParams() {
+        return languageManager.translate("command.cooldown", next(secondsPool), "/spawn");
+    }
+
+    @Benchmark
+    public String translateMissing() {
+        return languageManager.translate(next(missingPool));
+    }
+
+    @Benchmark
+    public String parseLanguageParams() {
+        return languageManager.parseLanguageParams(next(adhocPool), next(playerPool), "12");
+    }
+}
@@ -0,0 +1,71 @@
+package com.zeeyeh.nyt.benchmark;
+
+import com.zeeyeh.nyt.Messenger;
+import org.bukkit.command.CommandSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author LeonKeiran
+ * @description 消息发送基准测试，覆盖消息中 (key) 形式语言键的展开
+ * poolSize 为1时每次发送同一条消息，只测量缓存命中；为4096时轮换超过缓存容量的不同消息
+ * @date 2026/10/17 19:20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessengerBenchmark {
+    private CommandSender sender;
+    // 输入池大小，必须为2的幂
+    @Param({"1", "4096"})
+    private int poolSize;
+    private String[] plainPool;
+    private String[] inlineKeyPool;
+    private String[] inlineKeysPool;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        Stubs.languageManager("""
+                prefix: "&8[&bNytheris&8] &r"
+                welcome: "&aWelcome to the server"
+                """);
+        sender = Stubs.sender();
+        plainPool = Stubs.inputPool("&aWelcome to the server", poolSize);
+        inlineKeyPool = Stubs.inputPool("(prefix)&7Hello", poolSize);
+        inlineKeysPool = Stubs.inputPool("(prefix)(welcome) &7- &eenjoy", poolSize);
+    }
+
+    private String next(String[] pool) {
+        return pool[cursor++ & (pool.length - 1)];
+    }
+
+    @Benchmark
+    public void sendPlain() {
+        Messenger.send(sender, next(plainPool));
+    }
+
+    @Benchmark
+    public void sendInlineKey() {
+        Messenger.send(sender, next(inlineKeyPool));
+    }
+
+    @Benchmark
+    public void sendInlineKeys() {
+        Messenger.send(sender, next(inlineKeysPool));
+    }
+}
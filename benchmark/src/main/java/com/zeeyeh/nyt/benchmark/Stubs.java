@@ -0,0 +1,150 @@
+package com.zeeyeh.nyt.benchmark;
+
+import com.zeeyeh.nyt.api.Translator;
+import com.zeeyeh.nyt.config.LanguageManager;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * @author LeonKeiran
+ * @description 基准测试使用的Bukkit桩对象，在服务器外创建插件、消息接收者与语言管理器
+ * @date 2026/10/17 19:20
+ */
+public final class Stubs {
+    public static final String LANGUAGE = "zh_CN";
+    // 防止发送的消息被JIT消除
+    private static volatile Object sink;
+
+    private Stubs() {
+    }
+
+    /**
+     * 创建插件桩，除名称与日志外的方法都返回默认值
+     *
+     * @return 插件桩
+     */
+    public static Plugin plugin() {
+        Logger logger = Logger.getLogger("benchmark");
+        return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getName" -> "benchmark";
+                    case "getLogger" -> logger;
+                    case "toString" -> "BenchmarkPlugin";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    /**
+     * 创建控制台形式的消息接收者桩，收到的消息写入黑洞字段
+     *
+     * @return 消息接收者桩
+     */
+    public static CommandSender sender() {
+        return (CommandSender) Proxy.newProxyInstance(CommandSender.class.getClassLoader(), new Class<?>[]{CommandSender.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "sendMessage" -> {
+                        sink = args[0];
+                        yield null;
+                    }
+                    case "getName" -> "CONSOLE";
+                    case "isOp", "hasPermission" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    /**
+     * 使用给定的语言内容创建语言管理器，并初始化翻译器
+     *
+     * @param content YAML格式的语言内容
+     * @return 语言管理器
+     */
+    public static LanguageManager languageManager(String content) {
+        YamlConfiguration language = new YamlConfiguration();
+        try {
+            language.loadFromString(content);
+        } catch (InvalidConfigurationException e) {
+            throw new RuntimeException("基准测试语言内容格式错误", e);
+        }
+        Map<String, Configuration> langConfigs = new HashMap<>();
+        langConfigs.put(LANGUAGE, language);
+        LanguageManager languageManager = new LanguageManager(new YamlConfiguration(), plugin(),
+                LanguageManager.DEFAULT_LANGUAGE_SUFFIX, LANGUAGE, langConfigs);
+        Translator.init(languageManager);
+        return languageManager;
+    }
+
+    /**
+     * 创建基准测试输入池，池大小为1时只包含原始文本，否则每段文本追加不同的序号
+     * 池大小超过缓存容量时，轮换使用池中的文本可以测量缓存未命中的开销
+     *
+     * @param text 原始文本
+     * @param size 输入池大小
+     * @return 输入池
+     */
+    public static String[] inputPool(String text, int size) {
+        return inputPool(text, "", size);
+    }
+
+    /**
+     * 创建基准测试输入池，序号插入在前缀与后缀之间
+     *
+     * @param prefix 文本前缀
+     * @param suffix 文本后缀
+     * @param size   输入池大小
+     * @return 输入池
+     */
+    public static String[] inputPool(String prefix, String suffix, int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("基准测试输入池大小必须为2的幂");
+        }
+        String[] pool = new String[size];
+        if (size == 1) {
+            pool[0] = prefix + suffix;
+            return pool;
+        }
+        for (int i = 0; i < size; i++) {
+            pool[i] = prefix + " " + i + suffix;
+        }
+        return pool;
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
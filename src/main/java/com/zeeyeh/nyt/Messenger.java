@@ -1,26 +1,165 @@
 package com.zeeyeh.nyt;
 
+import com.google.common.base.Preconditions;
 import com.zeeyeh.nyt.api.Translator;
+import com.zeeyeh.nyt.display.Animation;
+import com.zeeyeh.nyt.display.AnimationScheduler;
+import com.zeeyeh.nyt.display.BossBarRegistry;
+import com.zeeyeh.nyt.display.DisplayCoalescer;
+import com.zeeyeh.nyt.display.ManagedBossBar;
+import com.zeeyeh.nyt.factory.ChatFactory;
+import com.zeeyeh.nyt.factory.ChatMessage;
+import com.zeeyeh.nyt.messaging.PluginMessageBatcher;
+import com.zeeyeh.nyt.metrics.Metrics;
 import com.zeeyeh.nyt.util.ColorUtil;
+import com.zeeyeh.nyt.util.ComponentRenderer;
+import com.zeeyeh.nyt.util.HashedTimerWheel;
+import com.zeeyeh.nyt.util.RegionDispatcher;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
 import net.md_5.bungee.api.ChatMessageType;
-import net.md_5.bungee.api.chat.TextComponent;
 import org.bukkit.Bukkit;
+import org.bukkit.Server;
 import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BarFlag;
 import org.bukkit.boss.BarStyle;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
+import org.bukkit.event.server.BroadcastMessageEvent;
+import org.bukkit.permissions.Permissible;
 import org.bukkit.plugin.Plugin;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * @author LeonKeiran
  * @description 消息发送者
+ * 调用 {@link #init(Plugin)} 后，玩家相关的发送在玩家所在区域的线程执行，Folia上广播按区域分批执行，发送、广播与动画方法可在任意线程调用
+ * boss血条注册表不是线程安全的，{@link #sendBossBar(String, String, BarColor, BarStyle, BarFlag...)} 与 {@link #getBossBars()} 只能在全局区域线程调用
  * @date 2025/3/6 20:16
  */
 public class Messenger {
+    // 区域线程调度器，未初始化时在调用线程直接发送
+    private static RegionDispatcher dispatcher;
+    // 快捷栏与标题合并发送，未初始化时直接发送
+    private static DisplayCoalescer displayCoalescer;
+    // 消息相关定时任务共用的时间轮，每tick推进一次
+    private static HashedTimerWheel timerWheel;
+    private static ScheduledTask timerTask;
+    private static BossBarRegistry bossBars;
+    private static AnimationScheduler animations;
+    private static PluginMessageBatcher pluginMessages;
+
+    /**
+     * 初始化消息发送者，启用快捷栏与标题的合并发送
+     *
+     * @param plugin 插件实例
+     */
+    public static void init(Plugin plugin) {
+        shutdown();
+        dispatcher = new RegionDispatcher(plugin);
+        displayCoalescer = new DisplayCoalescer(plugin, dispatcher);
+        displayCoalescer.start();
+        timerWheel = new HashedTimerWheel();
+        timerTask = dispatcher.runGlobalTimer(timerWheel::advance, 1L, 1L);
+        bossBars = new BossBarRegistry(plugin, timerWheel, dispatcher);
+        bossBars.start();
+        animations = new AnimationScheduler(timerWheel, displayCoalescer, dispatcher);
+        pluginMessages = new PluginMessageBatcher(plugin, dispatcher, PluginMessageBatcher.DEFAULT_COMPRESSION_THRESHOLD);
+        pluginMessages.start();
+    }
+
+    /**
+     * 发送所有待发送内容并停止合并发送
+     */
+    public static void shutdown() {
+        if (displayCoalescer != null) {
+            displayCoalescer.close();
+            displayCoalescer = null;
+        }
+        if (pluginMessages != null) {
+            pluginMessages.close();
+            pluginMessages = null;
+        }
+        if (animations != null) {
+            animations.cancelAll();
+            animations = null;
+        }
+        if (bossBars != null) {
+            bossBars.close();
+            bossBars = null;
+        }
+        if (timerTask != null) {
+            timerTask.cancel();
+            timerTask = null;
+        }
+        timerWheel = null;
+        dispatcher = null;
+    }
+
+    /**
+     * 获取区域线程调度器
+     *
+     * @return 区域线程调度器
+     */
+    public static RegionDispatcher getDispatcher() {
+        Preconditions.checkState(dispatcher != null, "消息发送者未初始化");
+        return dispatcher;
+    }
+
+    /**
+     * 获取boss血条注册表
+     *
+     * @return boss血条注册表
+     */
+    public static BossBarRegistry getBossBars() {
+        Preconditions.checkState(bossBars != null, "消息发送者未初始化");
+        return bossBars;
+    }
+
+    /**
+     * 获取动画调度器
+     *
+     * @return 动画调度器
+     */
+    public static AnimationScheduler getAnimations() {
+        Preconditions.checkState(animations != null, "消息发送者未初始化");
+        return animations;
+    }
+
+    /**
+     * 给玩家播放动画，所有玩家共享同一份帧数据
+     *
+     * @param viewers   观看的玩家
+     * @param animation 动画
+     * @param channel   显示位置
+     * @param loops     循环次数，0为无限循环
+     * @return 播放句柄
+     */
+    public static AnimationScheduler.Playback playAnimation(Collection<? extends Player> viewers, Animation animation,
+                                                            AnimationScheduler.Channel channel, int loops) {
+        return getAnimations().play(viewers, animation, channel, loops);
+    }
+
+    /**
+     * 获取消息相关定时任务共用的时间轮
+     *
+     * @return 时间轮
+     */
+    public static HashedTimerWheel getTimerWheel() {
+        Preconditions.checkState(timerWheel != null, "消息发送者未初始化");
+        return timerWheel;
+    }
 
     /**
      * 给所有在线玩家发送通知
@@ -31,8 +170,13 @@ public class Messenger {
         if (message.isEmpty() || message.equals("none")) {
             return;
         }
+        Metrics.increment(Metrics.Counter.BROADCAST);
         message = ColorUtil.translate(message);
-        Bukkit.broadcastMessage(message);
+        if (!RegionDispatcher.isFolia()) {
+            Bukkit.broadcastMessage(message);
+            return;
+        }
+        broadcastRegions(message, Server.BROADCAST_CHANNEL_USERS);
     }
 
     /**
@@ -45,42 +189,282 @@ public class Messenger {
         if (message.isEmpty() || message.equals("none")) {
             return;
         }
+        Metrics.increment(Metrics.Counter.BROADCAST);
         message = ColorUtil.translate(message);
-        Bukkit.broadcast(message, permission);
+        if (!RegionDispatcher.isFolia()) {
+            Bukkit.broadcast(message, permission);
+            return;
+        }
+        broadcastRegions(message, permission);
+    }
+
+    /**
+     * 给所有在线玩家与控制台发送富文本消息，同语言的玩家共享同一份组件
+     *
+     * @param message 富文本消息
+     */
+    public static void broadcast(ChatMessage message) {
+        Metrics.increment(Metrics.Counter.BROADCAST);
+        message.send(Bukkit.getOnlinePlayers());
+        message.send(Bukkit.getConsoleSender());
+    }
+
+    /**
+     * 按玩家客户端语言给所有在线玩家发送翻译后的通知
+     * 每种语言只翻译和格式化一次，同语言玩家共享同一份消息
+     *
+     * @param key    语言键
+     * @param params 参数数组
+     */
+    public static void broadcastTranslated(String key, String... params) {
+        broadcastGrouped(Bukkit.getOnlinePlayers(), language -> Translator.translateLanguage(language, key, params));
+        sendConsoleTranslated(key, params);
+    }
+
+    /**
+     * 按玩家客户端语言给拥有指定权限的在线玩家发送翻译后的通知
+     *
+     * @param permission 玩家必须拥有的权限
+     * @param key        语言键
+     * @param params     参数数组
+     */
+    public static void broadcastTranslatedWithPermission(String permission, String key, String... params) {
+        List<Player> recipients = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player.hasPermission(permission)) {
+                recipients.add(player);
+            }
+        }
+        broadcastGrouped(recipients, language -> Translator.translateLanguage(language, key, params));
+        sendConsoleTranslated(key, params);
+    }
+
+    /**
+     * 给控制台发送已翻译的广播副本，翻译结果不再展开内联语言键，也不重复计入发送次数
+     *
+     * @param key    语言键
+     * @param params 参数数组
+     */
+    private static void sendConsoleTranslated(String key, String... params) {
+        String message = Translator.translate(key, params);
+        if (message.isEmpty() || message.equals("none")) {
+            return;
+        }
+        Bukkit.getConsoleSender().sendMessage(ColorUtil.translate(message));
+    }
+
+    /**
+     * 给所有在线玩家与控制台发送Adventure组件消息，组件只生成一次并通过服务器的群组接收者发送
+     *
+     * @param message 消息内容
+     */
+    public static void broadcastComponent(String message) {
+        if (message.isEmpty() || message.equals("none")) {
+            return;
+        }
+        Metrics.increment(Metrics.Counter.BROADCAST);
+        Component component = ComponentRenderer.render(message);
+        dispatchBatches(Bukkit.getOnlinePlayers(), players -> Audience.audience(players).sendMessage(component));
+        Bukkit.getConsoleSender().sendMessage(component);
+    }
+
+    /**
+     * 按玩家客户端语言给所有在线玩家发送翻译后的Adventure组件消息
+     * 每种语言只生成一次组件，同语言玩家作为一个群组接收者发送
+     *
+     * @param key    语言键
+     * @param params 参数数组
+     */
+    public static void broadcastTranslatedComponent(String key, String... params) {
+        Metrics.increment(Metrics.Counter.BROADCAST);
+        Map<String, List<Player>> groups = new HashMap<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            groups.computeIfAbsent(Translator.getLanguage(player), language -> new ArrayList<>()).add(player);
+        }
+        groups.forEach((language, players) -> {
+            Component component = Translator.translateComponent(language, key, params);
+            dispatchBatches(players, batch -> Audience.audience(batch).sendMessage(component));
+        });
+        Bukkit.getConsoleSender().sendMessage(Translator.translateComponent(Translator.getDefaultLanguage(), key, params));
     }
 
     /**
-     * 发送插件消息
+     * 按语言分组给玩家发送通知，每种语言只调用一次渲染函数
+     *
+     * @param recipients 接收消息的玩家
+     * @param renderer   渲染函数，参数为语言名称，返回未格式化颜色的消息内容
+     */
+    public static void broadcastGrouped(Collection<? extends Player> recipients, Function<String, String> renderer) {
+        Metrics.increment(Metrics.Counter.BROADCAST);
+        Map<String, List<Player>> groups = new HashMap<>();
+        for (Player player : recipients) {
+            groups.computeIfAbsent(Translator.getLanguage(player), language -> new ArrayList<>()).add(player);
+        }
+        for (Map.Entry<String, List<Player>> entry : groups.entrySet()) {
+            String message = renderer.apply(entry.getKey());
+            if (message == null || message.isEmpty() || message.equals("none")) {
+                continue;
+            }
+            String content = ColorUtil.translate(message);
+            dispatchBatches(entry.getValue(), players -> {
+                for (Player player : players) {
+                    player.sendMessage(content);
+                }
+            });
+        }
+    }
+
+    /**
+     * 按区域分批广播，与 {@link Bukkit#broadcast(String, String)} 相同，按权限订阅确定接收者并触发 {@link BroadcastMessageEvent}
+     *
+     * @param content    已格式化颜色的消息内容
+     * @param permission 接收者必须订阅的权限
+     */
+    private static void broadcastRegions(String content, String permission) {
+        Set<CommandSender> recipients = new LinkedHashSet<>();
+        for (Permissible permissible : Bukkit.getPluginManager().getPermissionSubscriptions(permission)) {
+            if (permissible instanceof CommandSender sender && permissible.hasPermission(permission)) {
+                recipients.add(sender);
+            }
+        }
+        BroadcastMessageEvent event = new BroadcastMessageEvent(!Bukkit.isPrimaryThread(), content, recipients);
+        Bukkit.getPluginManager().callEvent(event);
+        if (event.isCancelled()) {
+            return;
+        }
+        String sent = event.getMessage();
+        List<Player> players = new ArrayList<>();
+        for (CommandSender recipient : event.getRecipients()) {
+            if (recipient instanceof Player player) {
+                players.add(player);
+            } else {
+                recipient.sendMessage(sent);
+            }
+        }
+        dispatchBatches(players, batch -> {
+            for (Player player : batch) {
+                player.sendMessage(sent);
+            }
+        });
+    }
+
+    /**
+     * 按区域分批处理玩家，每批在其所在区域的线程中处理，未初始化时在调用线程直接处理
+     *
+     * @param players 玩家
+     * @param batch   批处理函数
+     */
+    public static void dispatchBatches(Collection<? extends Player> players, Consumer<List<Player>> batch) {
+        RegionDispatcher current = dispatcher;
+        if (current == null) {
+            batch.accept(List.copyOf(players));
+            return;
+        }
+        current.executeBatches(players, batch);
+    }
+
+    /**
+     * 在消息接收者所在的线程执行，当前线程已拥有接收者时直接执行，未初始化时在调用线程直接执行
+     *
+     * @param sender 消息接收者
+     * @param task   任务
+     */
+    public static void dispatch(CommandSender sender, Runnable task) {
+        RegionDispatcher current = dispatcher;
+        if (current == null) {
+            task.run();
+            return;
+        }
+        current.execute(sender, task);
+    }
+
+    /**
+     * 发送插件消息，每次调用发送一个独立的数据包，不添加帧格式
      */
     public static void sendPluginMessage(Player player, Plugin plugin, String channel, byte[] message) {
         if (message.length == 0) {
             return;
         }
-        player.sendPluginMessage(plugin, channel, message);
+        Metrics.increment(Metrics.Counter.PLUGIN_MESSAGE);
+        dispatch(player, () -> player.sendPluginMessage(plugin, channel, message));
+    }
+
+    /**
+     * 将插件消息加入批量发送队列，同一tick内发给同一玩家同一频道的消息合并为一个帧在tick结束时发送
+     * 接收方需要使用 {@link com.zeeyeh.nyt.messaging.PluginMessageDecoder} 或相同的帧格式解码
+     *
+     * @param player  目标玩家
+     * @param channel 频道，需要已注册为发送频道
+     * @param message 消息内容
+     */
+    public static void queuePluginMessage(Player player, String channel, byte[] message) {
+        if (message.length == 0) {
+            return;
+        }
+        Metrics.increment(Metrics.Counter.PLUGIN_MESSAGE);
+        getPluginMessages().queue(player, channel, message);
+    }
+
+    /**
+     * 获取插件消息批量发送器
+     *
+     * @return 插件消息批量发送器
+     */
+    public static PluginMessageBatcher getPluginMessages() {
+        Preconditions.checkState(pluginMessages != null, "消息发送者未初始化");
+        return pluginMessages;
     }
 
     /**
      * 发送快捷栏标题
+     * 调用 {@link #init(Plugin)} 后同一tick内的多次发送只在tick结束时发送最后一次
      *
      * @param player 目标玩家
      * @param title  标题内容
      */
     public static void sendActionBar(Player player, String title) {
+        Metrics.increment(Metrics.Counter.ACTION_BAR);
         title = ColorUtil.translate(title);
-        player.spigot().sendMessage(ChatMessageType.ACTION_BAR, new TextComponent(title));
+        DisplayCoalescer coalescer = displayCoalescer;
+        if (coalescer != null) {
+            coalescer.actionBar(player, title);
+            return;
+        }
+        String content = title;
+        dispatch(player, () -> player.spigot().sendMessage(ChatMessageType.ACTION_BAR, ChatFactory.legacy(content)));
     }
 
     /**
-     * 发送boss血条
+     * 给所有在线玩家发送boss血条，每次调用都会创建新的血条，血条不会自动移除，插件关闭时随注册表一起移除
+     * 可在任意线程调用，创建在全局区域线程中执行
      *
      * @param title    文本内容
      * @param barColor 血条颜色
      * @param style    血条样式
      * @param barFlags 额外标签
+     * @deprecated 重复调用会叠加多个血条且无法移除，使用 {@link #sendBossBar(String, String, BarColor, BarStyle, BarFlag...)} 按标识更新同一个血条，并通过 {@link ManagedBossBar#expireAfter(long)} 设置显示时间
      */
+    @Deprecated
     public static void sendBossBar(String title, BarColor barColor, BarStyle style, BarFlag... barFlags) {
+        String id = UUID.randomUUID().toString();
+        getDispatcher().executeGlobal(() -> sendBossBar(id, title, barColor, style, barFlags)
+                .players(Bukkit.getOnlinePlayers()));
+    }
+
+    /**
+     * 获取或创建指定标识的boss血条，已存在时只更新发生变化的属性，需要在全局区域线程调用
+     *
+     * @param id       血条标识
+     * @param title    文本内容
+     * @param barColor 血条颜色
+     * @param style    血条样式
+     * @param barFlags 额外标签
+     * @return 血条
+     */
+    public static ManagedBossBar sendBossBar(String id, String title, BarColor barColor, BarStyle style, BarFlag... barFlags) {
+        Metrics.increment(Metrics.Counter.BOSS_BAR);
         title = ColorUtil.translate(title);
-        Bukkit.createBossBar(title, barColor, style, barFlags);
+        return getBossBars().show(id, title, barColor, style, barFlags);
     }
 
     /**
@@ -92,7 +476,7 @@ public class Messenger {
     }
 
     /**
-     * 给目标发送通知
+     * 给目标发送通知，消息中 (key) 形式的内容按目标的语言替换为语言文本，语言文件中不存在的键原样保留，使用 \( 输出原样的括号
      *
      * @param sender  目标
      * @param message 消息内容
@@ -101,41 +485,52 @@ public class Messenger {
         if (message.isEmpty() || message.equals("none")) {
             return;
         }
-        Pattern pattern = Pattern.compile("\\((.*?)\\)");
-        Matcher matcher = pattern.matcher(message);
-        if (matcher.matches()) {
-            StringBuilder builder = new StringBuilder();
-            while (matcher.find()) {
-                String text = matcher.group();
-                String langText = getLangText(text);
-                matcher.appendReplacement(builder, langText);
-            }
-            matcher.appendTail(builder);
-            message = builder.toString();
-        }
-        message = ColorUtil.translate(message);
-        send(sender, "", message);
+        Metrics.increment(Metrics.Counter.SEND);
+        String content = Translator.renderInline(sender, message);
+        dispatch(sender, () -> sender.sendMessage(content));
+    }
+
+    /**
+     * 给目标发送富文本消息
+     *
+     * @param sender  目标
+     * @param message 富文本消息
+     */
+    public static void send(CommandSender sender, ChatMessage message) {
+        Metrics.increment(Metrics.Counter.SEND);
+        message.send(sender);
     }
 
     /**
-     * 获取指定语言键对应的语言文本。
-     * 如果键以括号开头并以括号结尾，则移除括号并尝试从语言文件中翻译该键；
-     * 如果键不满足以上条件，则直接返回该键。
+     * 给目标发送Adventure组件消息，跳过 § 文本的生成与解析
      *
-     * @param key 语言键，可能包含括号。
-     * @return 如果键被括号包围，则返回翻译后的文本；否则返回原始键。
+     * @param audience 目标，玩家、控制台或群组
+     * @param message  消息内容
      */
-    private static String getLangText(String key) {
-        // 检查key是否以括号开头和结尾，如果是，则移除括号并尝试进行翻译
-        if (key.startsWith("(") && key.endsWith(")")) {
-            // 移除括号
-            key = key.substring(1, key.length() - 1);
-            // 进行翻译并返回
-//            return NytPluginTemplate.getLanguageManager().translate(key);
-            return Translator.translate(key);
+    public static void sendComponent(Audience audience, String message) {
+        if (message.isEmpty() || message.equals("none")) {
+            return;
+        }
+        Metrics.increment(Metrics.Counter.SEND);
+        Component component = ComponentRenderer.render(message);
+        if (audience instanceof CommandSender sender) {
+            dispatch(sender, () -> sender.sendMessage(component));
+        } else {
+            audience.sendMessage(component);
         }
-        // 如果key不包含括号，则直接返回原始key
-        return key;
+    }
+
+    /**
+     * 使用目标的语言翻译并发送Adventure组件消息
+     *
+     * @param sender 目标
+     * @param key    语言键
+     * @param params 参数数组
+     */
+    public static void sendTranslatedComponent(CommandSender sender, String key, String... params) {
+        Metrics.increment(Metrics.Counter.SEND);
+        Component component = Translator.translateComponent(Translator.getLanguage(sender), key, params);
+        dispatch(sender, () -> sender.sendMessage(component));
     }
 
     /**
@@ -156,6 +551,7 @@ public class Messenger {
 
     /**
      * 给目标发送标题
+     * 调用 {@link #init(Plugin)} 后同一tick内的多次发送只在tick结束时发送最后一次
      *
      * @param player   目标玩家
      * @param title    标题内容
@@ -168,9 +564,17 @@ public class Messenger {
         if (player == null) {
             return;
         }
+        Metrics.increment(Metrics.Counter.TITLE);
         title = ColorUtil.translate(title);
         subtitle = ColorUtil.translate(subtitle);
-        player.sendTitle(title, subtitle, fadeIn, stay, fadeOut);
+        DisplayCoalescer coalescer = displayCoalescer;
+        if (coalescer != null) {
+            coalescer.title(player, title, subtitle, fadeIn, stay, fadeOut);
+            return;
+        }
+        String titleContent = title;
+        String subtitleContent = subtitle;
+        dispatch(player, () -> player.sendTitle(titleContent, subtitleContent, fadeIn, stay, fadeOut));
     }
 
     /**
@@ -182,7 +586,11 @@ public class Messenger {
         if (player == null) {
             return;
         }
-        player.resetTitle();
+        DisplayCoalescer coalescer = displayCoalescer;
+        if (coalescer != null) {
+            coalescer.resetTitle(player);
+        }
+        dispatch(player, player::resetTitle);
     }
 
     /**
@@ -193,8 +601,8 @@ public class Messenger {
      * @param message 消息内容
      */
     public static void send(CommandSender sender, String prefix, String message) {
-        String content = prefix + message;
-        content = ColorUtil.translate(content);
-        sender.sendMessage(content);
+        Metrics.increment(Metrics.Counter.SEND);
+        String content = ColorUtil.translate(prefix + message);
+        dispatch(sender, () -> sender.sendMessage(content));
     }
 }
@@ -1,25 +1,159 @@
 package com.zeeyeh.nyt;
 
 import com.zeeyeh.nyt.api.Translator;
+import com.zeeyeh.nyt.command.TestCommand;
+import com.zeeyeh.nyt.config.ConfigManager;
+import com.zeeyeh.nyt.config.ConfigWatcher;
 import com.zeeyeh.nyt.config.LanguageManager;
+import com.zeeyeh.nyt.config.LoadReport;
+import com.zeeyeh.nyt.factory.ChatFactory;
+import com.zeeyeh.nyt.listener.LanguageListener;
+import com.zeeyeh.nyt.metrics.Metrics;
+import com.zeeyeh.nyt.metrics.MetricsReporter;
+import com.zeeyeh.nyt.util.ColorUtil;
+import com.zeeyeh.nyt.util.ComponentRenderer;
+import com.zeeyeh.nyt.util.FileUtil;
+import com.zeeyeh.nyt.util.GradientEngine;
 import lombok.Getter;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+
 public final class NytPluginTemplate extends JavaPlugin {
     @Getter
     private static NytPluginTemplate instance;
     @Getter
+    private ConfigManager configManager;
+    @Getter
     private LanguageManager languageManager;
+    private ConfigWatcher configWatcher;
+    private MetricsReporter metricsReporter;
+    private Duration saveShutdownTimeout = Duration.ofSeconds(10);
 
     @Override
     public void onEnable() {
         instance = this;
+        // 主配置与默认语言是启动必需的，同步加载；其余文件异步并行加载，不阻塞启动
+        configManager = new ConfigManager(this);
+        getConfigManager().initializeDefaultConfig();
         languageManager = new LanguageManager(this);
+        getLanguageManager().setFallbacks(readFallbacks(getConfigManager().getDefaultConfig()));
         getLanguageManager().initializeDefaultLanguage();
+        getLanguageManager().loadLanguage();
         Translator.init(languageManager);
+        initializeSaver(getConfigManager().getDefaultConfig());
+        openLazyConfigs(getConfigManager().getDefaultConfig());
+        getConfigManager().loadConfigsAsync()
+                .thenAccept(report -> logLoadReport("配置文件", report))
+                .exceptionally(e -> {
+                    getLogger().log(Level.SEVERE, "配置文件异步加载失败", e);
+                    return null;
+                });
+        getLanguageManager().loadLanguagesAsync()
+                .thenAccept(report -> {
+                    logLoadReport("语言文件", report);
+                    getLanguageManager().getFallbackReport().forEach((language, count) ->
+                            getLogger().info("语言 " + language + " 有 " + count + " 个键使用回退语言"));
+                })
+                .exceptionally(e -> {
+                    getLogger().log(Level.SEVERE, "语言文件异步加载失败", e);
+                    return null;
+                });
+        getServer().getPluginManager().registerEvents(new LanguageListener(languageManager), this);
+        Messenger.init(this);
+        initializeMetrics();
+        try {
+            configWatcher = new ConfigWatcher(this);
+            configWatcher.watch(configManager);
+            configWatcher.watch(languageManager);
+            configManager.getSaver().setWriteListener(configWatcher::ignoreSelfWrite);
+            configWatcher.start();
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING, "配置文件监听启动失败，修改后需要重启生效", e);
+        }
+    }
+
+    private void initializeSaver(Configuration config) {
+        configManager.getSaver().setDelay(Duration.ofMillis(config.getLong("save.delay", 2000L)));
+        String fsync = config.getString("save.fsync", FileUtil.SyncMode.FILE.name());
+        try {
+            configManager.getSaver().setSyncMode(FileUtil.SyncMode.valueOf(fsync.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            getLogger().warning("未知的同步方式 \"" + fsync + "\"，使用 FILE");
+        }
+        saveShutdownTimeout = Duration.ofSeconds(config.getLong("save.shutdown-timeout", 10L));
+    }
+
+    private void openLazyConfigs(Configuration config) {
+        long memoryBudget = config.getLong("lazy-configs.memory-budget", 32L) * 1024L * 1024L;
+        for (String name : config.getStringList("lazy-configs.files")) {
+            try {
+                getConfigManager().loadLazyConfig(name, memoryBudget);
+            } catch (RuntimeException e) {
+                getLogger().log(Level.WARNING, "配置文件 \"" + name + "\" 按需加载失败", e);
+            }
+        }
+    }
+
+    private Map<String, List<String>> readFallbacks(Configuration config) {
+        Map<String, List<String>> fallbacks = new HashMap<>();
+        ConfigurationSection section = config.getConfigurationSection("language.fallbacks");
+        if (section != null) {
+            for (String language : section.getKeys(false)) {
+                fallbacks.put(language, section.getStringList(language));
+            }
+        }
+        return fallbacks;
+    }
+
+    private void initializeMetrics() {
+        Configuration config = getConfigManager().getDefaultConfig();
+        Metrics.setEnabled(config.getBoolean("metrics.enabled", false));
+        Metrics.registerCache("color-templates", ColorUtil.getTemplateCache());
+        Metrics.registerCache("gradients", ColorUtil.getGradientCache());
+        Metrics.registerCache("palettes", GradientEngine.getPaletteCache());
+        Metrics.registerCache("message-templates", LanguageManager.getAdhocTemplateCache());
+        Metrics.registerCache("components", ComponentRenderer.getComponentCache());
+        Metrics.registerCache("chat-components", ChatFactory.getComponentCache());
+        metricsReporter = new MetricsReporter(this);
+        long dumpInterval = config.getLong("metrics.dump-interval", 0L);
+        if (Metrics.isEnabled() && dumpInterval > 0) {
+            metricsReporter.start(dumpInterval);
+        }
+        PluginCommand command = getCommand("test");
+        if (command != null) {
+            TestCommand executor = new TestCommand(metricsReporter);
+            command.setExecutor(executor);
+            command.setTabCompleter(executor);
+        }
+    }
+
+    private void logLoadReport(String type, LoadReport<?> report) {
+        getLogger().info(type + report.summary(3));
+        report.failures().forEach((name, throwable) ->
+                getLogger().log(Level.WARNING, type + " \"" + name + "\" 加载失败", throwable));
     }
 
     @Override
     public void onDisable() {
+        if (configManager != null && !configManager.flush(saveShutdownTimeout)) {
+            getLogger().warning("配置文件未能在 " + saveShutdownTimeout.toSeconds() + " 秒内全部保存");
+        }
+        Messenger.shutdown();
+        if (metricsReporter != null) {
+            metricsReporter.stop();
+        }
+        if (configWatcher != null) {
+            configWatcher.close();
+        }
     }
 }
\ No newline at end of file
@@ -1,6 +1,13 @@
 package com.zeeyeh.nyt.api;
 
+import com.zeeyeh.nyt.config.Args;
 import com.zeeyeh.nyt.config.LanguageManager;
+import net.kyori.adventure.text.Component;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * @author LeonKeiran
@@ -13,6 +20,152 @@ public class Translator {
         return languageManager.translate(content, params);
     }
 
+    /**
+     * 使用消息接收者的语言翻译，玩家使用客户端语言，其他接收者使用当前语言
+     *
+     * @param sender  消息接收者
+     * @param content 语言键
+     * @param params  参数数组
+     * @return 翻译后的文本
+     */
+    public static String translate(CommandSender sender, String content, String... params) {
+        return languageManager.translateLanguage(languageManager.getLanguage(sender), content, params);
+    }
+
+    /**
+     * 使用消息接收者的语言翻译，并使用命名参数替换 {name} 形式的占位符
+     *
+     * @param sender  消息接收者
+     * @param content 语言键
+     * @param values  命名参数
+     * @return 翻译后的文本
+     */
+    public static String translate(CommandSender sender, String content, Map<String, ?> values) {
+        return languageManager.translateLanguage(languageManager.getLanguage(sender), content, values);
+    }
+
+    /**
+     * 使用消息接收者的语言翻译，并使用类型化参数替换占位符
+     * 参数只在语言内容包含对应占位符时才会计算
+     *
+     * @param sender  消息接收者
+     * @param content 语言键
+     * @param args    参数
+     * @return 翻译后的文本
+     */
+    public static String translate(CommandSender sender, String content, Args args) {
+        return languageManager.translateLanguage(languageManager.getLanguage(sender), content, args);
+    }
+
+    /**
+     * 使用当前语言翻译，并使用类型化参数替换占位符
+     *
+     * @param content 语言键
+     * @param args    参数
+     * @return 翻译后的文本
+     */
+    public static String translate(String content, Args args) {
+        return languageManager.translateLanguage(languageManager.getCurrentLanguage(), content, args);
+    }
+
+    /**
+     * 使用指定语言翻译，并使用类型化参数替换占位符
+     *
+     * @param language 语言名称
+     * @param content  语言键
+     * @param args     参数
+     * @return 翻译后的文本
+     */
+    public static String translateLanguage(String language, String content, Args args) {
+        return languageManager.translateLanguage(language, content, args);
+    }
+
+    /**
+     * 使用消息接收者的语言展开消息中 (key) 形式的内联语言键并转换颜色代码
+     * 同一消息在同一语言下只展开一次，语言文件重新加载后重新展开
+     *
+     * @param sender  消息接收者
+     * @param message 消息内容
+     * @return 展开后的文本
+     */
+    public static String renderInline(CommandSender sender, String message) {
+        return languageManager.renderInline(languageManager.getLanguage(sender), message);
+    }
+
+    /**
+     * 使用客户端语言翻译
+     *
+     * @param locale  客户端语言
+     * @param content 语言键
+     * @param params  参数数组
+     * @return 翻译后的文本
+     */
+    public static String translate(Locale locale, String content, String... params) {
+        return languageManager.translate(locale, content, params);
+    }
+
+    /**
+     * 使用指定语言翻译
+     *
+     * @param language 语言名称
+     * @param content  语言键
+     * @param params   参数数组
+     * @return 翻译后的文本
+     */
+    public static String translateLanguage(String language, String content, String... params) {
+        return languageManager.translateLanguage(language, content, params);
+    }
+
+    /**
+     * 使用指定语言翻译并转换为Adventure组件
+     *
+     * @param language 语言名称
+     * @param content  语言键
+     * @param params   参数数组
+     * @return 组件
+     */
+    public static Component translateComponent(String language, String content, String... params) {
+        return languageManager.translateComponent(language, content, params);
+    }
+
+    /**
+     * 获取玩家客户端语言对应的已加载语言名称
+     *
+     * @param player 玩家
+     * @return 语言名称
+     */
+    public static String getLanguage(Player player) {
+        return languageManager.getLanguage(player);
+    }
+
+    /**
+     * 获取消息接收者使用的语言名称，玩家使用客户端语言，其他接收者使用当前语言
+     *
+     * @param sender 消息接收者
+     * @return 语言名称
+     */
+    public static String getLanguage(CommandSender sender) {
+        return languageManager.getLanguage(sender);
+    }
+
+    /**
+     * 获取语言快照版本，语言文件重新加载后递增，可用于判断翻译结果缓存是否失效
+     *
+     * @return 快照版本
+     */
+    public static long getVersion() {
+        return languageManager.getSnapshot().getVersion();
+    }
+
+    /**
+     * 获取当前默认语言名称
+     *
+     * @return 语言名称
+     */
+    public static String getDefaultLanguage() {
+        return languageManager.getCurrentLanguage();
+    }
+
     public static void init(LanguageManager languageManager) {
         Translator.languageManager = languageManager;
     }
@@ -0,0 +1,96 @@
+package com.zeeyeh.nyt.command;
+
+import com.zeeyeh.nyt.Messenger;
+import com.zeeyeh.nyt.metrics.LatencyHistogram;
+import com.zeeyeh.nyt.metrics.Metrics;
+import com.zeeyeh.nyt.metrics.MetricsReporter;
+import com.zeeyeh.nyt.util.LruCache;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * @author LeonKeiran
+ * @description test命令，/test stats 查看运行时统计
+ * @date 2026/10/17 19:40
+ */
+public class TestCommand implements CommandExecutor, TabCompleter {
+    public static final String STATS_PERMISSION = "nyt.stats";
+    private final MetricsReporter reporter;
+
+    public TestCommand(MetricsReporter reporter) {
+        this.reporter = reporter;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 0 || !args[0].equalsIgnoreCase("stats")) {
+            Messenger.send(sender, "&7/" + label + " stats [reset|dump]");
+            return true;
+        }
+        if (!sender.hasPermission(STATS_PERMISSION)) {
+            Messenger.send(sender, "&c没有权限");
+            return true;
+        }
+        String action = args.length > 1 ? args[1].toLowerCase(Locale.ROOT) : "";
+        switch (action) {
+            case "reset" -> {
+                Metrics.reset();
+                Messenger.send(sender, "&a统计数据已清空");
+            }
+            case "dump" -> {
+                try {
+                    Messenger.send(sender, "&a统计数据已输出到 " + reporter.dump());
+                } catch (IOException e) {
+                    Messenger.send(sender, "&c统计数据输出失败: " + e.getMessage());
+                }
+            }
+            default -> showStats(sender);
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 1) {
+            return List.of("stats");
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("stats")) {
+            return List.of("reset", "dump");
+        }
+        return List.of();
+    }
+
+    private void showStats(CommandSender sender) {
+        if (!Metrics.isEnabled()) {
+            Messenger.send(sender, "&e统计未启用，在config.yml中设置 metrics.enabled: true");
+        }
+        StringBuilder counters = new StringBuilder("&7消息:");
+        for (Metrics.Counter counter : Metrics.Counter.values()) {
+            counters.append(" &f").append(counter.name().toLowerCase(Locale.ROOT)).append("&7=&b").append(Metrics.getCount(counter));
+        }
+        Messenger.send(sender, "&8&m          &r &bNytheris 运行统计 &8&m          ");
+        Messenger.send(sender, counters.toString());
+        showLatency(sender, Metrics.TRANSLATE);
+        showLatency(sender, Metrics.COLORIZE);
+        for (Map.Entry<String, LruCache<?, ?>> entry : Metrics.getCaches().entrySet()) {
+            LruCache<?, ?> cache = entry.getValue();
+            Messenger.send(sender, String.format(Locale.ROOT, "&7缓存 &f%s&7: 命中率 &b%.1f%% &7大小 &b%d&7/&b%d &7淘汰 &b%d",
+                    entry.getKey(), cache.getHitRate() * 100, cache.size(), cache.getMaximumSize(), cache.getEvictionCount()));
+        }
+        Messenger.send(sender, "&7缺失语言键: &b" + Metrics.getMissingKeyCount());
+        Metrics.getTopMissingKeys(5).forEach((key, count) -> Messenger.send(sender, "&8 - &f" + key + " &7x&b" + count));
+    }
+
+    private void showLatency(CommandSender sender, LatencyHistogram histogram) {
+        Messenger.send(sender, String.format(Locale.ROOT, "&7%s: &b%d &7次 平均 &b%.2fμs &7p99 &b%.2fμs &7最大 &b%.2fμs",
+                histogram.getName(), histogram.getCount(), histogram.getMean() / 1000D,
+                histogram.getPercentile(0.99) / 1000D, histogram.getMax() / 1000D));
+    }
+}
@@ -0,0 +1,227 @@
+package com.zeeyeh.nyt.config;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.command.CommandSender;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.NumberFormat;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * @author LeonKeiran
+ * @description 消息模板参数，支持命名参数、延迟计算的参数与数字、时长、玩家等类型化参数
+ * 参数只在模板包含对应占位符时才会计算和格式化，同一参数在一次渲染中只计算一次
+ * 实例不是线程安全的，每次发送创建新的实例
+ * @date 2026/10/17 23:10
+ */
+public final class Args {
+    private static final int MAX_FRACTION_DIGITS = 2;
+    // NumberFormat不是线程安全的，每个线程按语言缓存一份
+    private static final ThreadLocal<Map<Locale, NumberFormat[]>> NUMBER_FORMATS = ThreadLocal.withInitial(HashMap::new);
+    private static final String[] UNITS_ZH = {"天", "小时", "分钟", "秒"};
+    private static final String[] UNITS_DEFAULT = {"d", "h", "m", "s"};
+    private String[] names = new String[4];
+    private Object[] values = new Object[4];
+    // 已格式化的结果，与格式化时使用的语言
+    private String[] formatted = new String[4];
+    private Locale formattedLocale;
+    private int size;
+
+    private Args() {
+    }
+
+    /**
+     * 创建空参数
+     *
+     * @return 参数
+     */
+    public static Args of() {
+        return new Args();
+    }
+
+    /**
+     * 创建序号参数，对应 {0}、{1} 等占位符
+     *
+     * @param values 参数值
+     * @return 参数
+     */
+    public static Args of(Object... values) {
+        Args args = new Args();
+        for (int i = 0; i < values.length; i++) {
+            args.with(Integer.toString(i), values[i]);
+        }
+        return args;
+    }
+
+    /**
+     * 添加命名参数，值在渲染时按类型格式化
+     *
+     * @param name  占位符名称
+     * @param value 参数值
+     * @return 当前参数
+     */
+    public Args with(String name, Object value) {
+        if (size == names.length) {
+            int capacity = size * 2;
+            names = Arrays.copyOf(names, capacity);
+            values = Arrays.copyOf(values, capacity);
+            formatted = Arrays.copyOf(formatted, capacity);
+        }
+        names[size] = name;
+        values[size] = value;
+        size++;
+        return this;
+    }
+
+    /**
+     * 添加延迟计算的参数，只有模板包含该占位符时才调用
+     *
+     * @param name     占位符名称
+     * @param supplier 参数值提供函数
+     * @return 当前参数
+     */
+    public Args lazy(String name, Supplier<?> supplier) {
+        return with(name, supplier);
+    }
+
+    /**
+     * 添加数字参数，按语言添加千位分隔符，小数最多保留两位
+     *
+     * @param name  占位符名称
+     * @param value 数字
+     * @return 当前参数
+     */
+    public Args number(String name, Number value) {
+        return with(name, value);
+    }
+
+    /**
+     * 添加时长参数，按语言格式化为天、小时、分钟、秒
+     *
+     * @param name  占位符名称
+     * @param value 时长
+     * @return 当前参数
+     */
+    public Args duration(String name, Duration value) {
+        return with(name, value);
+    }
+
+    /**
+     * 添加玩家参数，格式化为玩家名称
+     *
+     * @param name   占位符名称
+     * @param player 玩家
+     * @return 当前参数
+     */
+    public Args player(String name, OfflinePlayer player) {
+        return with(name, player);
+    }
+
+    /**
+     * 判断是否没有参数
+     *
+     * @return 是否为空
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 获取格式化后的参数值
+     *
+     * @param name   占位符名称
+     * @param locale 格式化使用的语言
+     * @return 格式化后的参数值，不存在时返回null
+     */
+    public String resolve(String name, Locale locale) {
+        if (!locale.equals(formattedLocale)) {
+            Arrays.fill(formatted, null);
+            formattedLocale = locale;
+        }
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                String text = formatted[i];
+                if (text == null) {
+                    if (values[i] instanceof Supplier<?> supplier) {
+                        // 延迟参数只计算一次，切换语言时只重新格式化
+                        values[i] = supplier.get();
+                    }
+                    text = format(values[i], locale);
+                    formatted[i] = text;
+                }
+                return text;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按类型格式化参数值
+     *
+     * @param value  参数值
+     * @param locale 语言
+     * @return 格式化后的文本
+     */
+    public static String format(Object value, Locale locale) {
+        if (value instanceof Supplier<?> supplier) {
+            value = supplier.get();
+        }
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof CharSequence text) {
+            return text.toString();
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger) {
+            return numberFormats(locale)[0].format(value);
+        }
+        if (value instanceof Number) {
+            return numberFormats(locale)[1].format(value instanceof BigDecimal ? value : ((Number) value).doubleValue());
+        }
+        if (value instanceof Duration duration) {
+            return formatDuration(duration, locale);
+        }
+        if (value instanceof CommandSender sender) {
+            return sender.getName();
+        }
+        if (value instanceof OfflinePlayer player) {
+            String name = player.getName();
+            return name != null ? name : player.getUniqueId().toString();
+        }
+        return String.valueOf(value);
+    }
+
+    private static NumberFormat[] numberFormats(Locale locale) {
+        return NUMBER_FORMATS.get().computeIfAbsent(locale, key -> {
+            NumberFormat integer = NumberFormat.getIntegerInstance(key);
+            NumberFormat decimal = NumberFormat.getNumberInstance(key);
+            decimal.setMaximumFractionDigits(MAX_FRACTION_DIGITS);
+            return new NumberFormat[]{integer, decimal};
+        });
+    }
+
+    private static String formatDuration(Duration duration, Locale locale) {
+        boolean chinese = locale.getLanguage().equals(Locale.CHINESE.getLanguage());
+        String[] units = chinese ? UNITS_ZH : UNITS_DEFAULT;
+        long seconds = Math.max(0L, duration.getSeconds());
+        long[] parts = {seconds / 86400, seconds % 86400 / 3600, seconds % 3600 / 60, seconds % 60};
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (parts[i] == 0) {
+                continue;
+            }
+            if (!chinese && !builder.isEmpty()) {
+                builder.append(' ');
+            }
+            builder.append(parts[i]).append(units[i]);
+        }
+        return builder.isEmpty() ? "0" + units[units.length - 1] : builder.toString();
+    }
+}
@@ -0,0 +1,332 @@
+package com.zeeyeh.nyt.config;
+
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * @author LeonKeiran
+ * @description 配置绑定器，将配置节转换为记录或接口实例
+ * 每个类型的结构只解析一次，绑定时一次性校验并转换所有配置项，之后读取不再访问配置树
+ * 记录绑定的配置项保存在记录的final字段中，读取即字段访问；接口绑定使用JDK动态代理，
+ * 每次读取都有一次反射分派与一次Map查找，基本类型以装箱形式保存并在读取时拆箱，不适合热路径
+ * @date 2026/10/17 16:30
+ */
+final class ConfigBinder {
+    // 类型结构缓存，每个类型只解析一次
+    private static final ClassValue<Schema> SCHEMAS = new ClassValue<>() {
+        @Override
+        protected Schema computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+
+    private ConfigBinder() {
+    }
+
+    /**
+     * 绑定的配置项
+     *
+     * @param name   组件或方法名称
+     * @param path   相对配置路径
+     * @param type   配置项类型
+     * @param method 接口方法，记录类型为null
+     */
+    private record Property(String name, String path, Type type, Method method) {
+    }
+
+    /**
+     * 类型结构
+     *
+     * @param properties  配置项
+     * @param constructor 记录的规范构造函数，接口类型为null
+     */
+    private record Schema(List<Property> properties, Constructor<?> constructor) {
+    }
+
+    /**
+     * 将配置文件中的配置节绑定为指定类型的实例
+     *
+     * @param type          记录或接口类型
+     * @param configuration 配置文件
+     * @param path          配置节路径，空字符串表示根节点
+     * @param name          配置文件名称，用于错误信息
+     * @return 绑定实例
+     * @throws IllegalArgumentException 如果配置项缺失、类型不匹配或类型不支持绑定
+     */
+    static <T> T bind(Class<T> type, Configuration configuration, String path, String name) {
+        ConfigurationSection section = path.isEmpty() ? configuration : configuration.getConfigurationSection(path);
+        if (section == null) {
+            throw new IllegalArgumentException("配置文件 \"" + name + "\" 中不存在配置节 \"" + path + "\"");
+        }
+        return type.cast(bindSection(type, section, name));
+    }
+
+    private static Object bindSection(Class<?> type, ConfigurationSection section, String name) {
+        Schema schema = SCHEMAS.get(type);
+        if (schema.constructor() != null) {
+            Object[] args = new Object[schema.properties().size()];
+            for (int i = 0; i < args.length; i++) {
+                Property property = schema.properties().get(i);
+                String path = fullPath(section, property.path());
+                Object raw = section.get(property.path());
+                if (raw == null) {
+                    throw missing(name, path);
+                }
+                args[i] = convert(raw, property.type(), name, path);
+            }
+            try {
+                return schema.constructor().newInstance(args);
+            } catch (InvocationTargetException e) {
+                throw new IllegalArgumentException("配置文件 \"" + name + "\" 绑定到 " + type.getSimpleName()
+                        + " 失败: " + e.getCause().getMessage(), e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("无法创建 " + type.getName() + " 实例", e);
+            }
+        }
+        Map<Method, Object> values = new HashMap<>();
+        List<Method> defaults = new ArrayList<>();
+        for (Property property : schema.properties()) {
+            String path = fullPath(section, property.path());
+            Object raw = section.get(property.path());
+            if (raw != null) {
+                values.put(property.method(), convert(raw, property.type(), name, path));
+            } else if (property.method().isDefault()) {
+                defaults.add(property.method());
+            } else {
+                throw missing(name, path);
+            }
+        }
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new ProxyHandler(type, values));
+        // 缺失的配置项使用接口默认方法的返回值，同样只计算一次
+        for (Method method : defaults) {
+            try {
+                values.put(method, InvocationHandler.invokeDefault(proxy, method));
+            } catch (Throwable e) {
+                throw new IllegalArgumentException("配置项 \"" + fullPath(section, method.getName()) + "\" 的默认值计算失败", e);
+            }
+        }
+        return proxy;
+    }
+
+    private static Object convert(Object raw, Type type, String name, String path) {
+        if (type instanceof ParameterizedType parameterized) {
+            Type rawType = parameterized.getRawType();
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (rawType == List.class) {
+                if (!(raw instanceof List<?> list)) {
+                    throw mismatch(name, path, "列表", raw);
+                }
+                List<Object> result = new ArrayList<>(list.size());
+                for (int i = 0; i < list.size(); i++) {
+                    Object element = list.get(i);
+                    if (element == null) {
+                        throw missing(name, path + "[" + i + "]");
+                    }
+                    result.add(convert(element, arguments[0], name, path + "[" + i + "]"));
+                }
+                return List.copyOf(result);
+            }
+            if (rawType == Map.class && arguments[0] == String.class) {
+                if (!(raw instanceof ConfigurationSection section)) {
+                    throw mismatch(name, path, "配置节", raw);
+                }
+                Map<String, Object> result = new LinkedHashMap<>();
+                for (String key : section.getKeys(false)) {
+                    result.put(key, convert(section.get(key), arguments[1], name, path + "." + key));
+                }
+                return Collections.unmodifiableMap(result);
+            }
+            throw unsupported(type);
+        }
+        if (!(type instanceof Class<?> target)) {
+            throw unsupported(type);
+        }
+        if (raw == null) {
+            throw missing(name, path);
+        }
+        if (target == String.class) {
+            if (raw instanceof ConfigurationSection || raw instanceof List) {
+                throw mismatch(name, path, "字符串", raw);
+            }
+            return raw.toString();
+        }
+        if (target == boolean.class || target == Boolean.class) {
+            if (!(raw instanceof Boolean)) {
+                throw mismatch(name, path, "布尔值", raw);
+            }
+            return raw;
+        }
+        if (target == int.class || target == Integer.class) {
+            if (!isIntegral(raw) || ((Number) raw).longValue() != ((Number) raw).intValue()) {
+                throw mismatch(name, path, "整数", raw);
+            }
+            return ((Number) raw).intValue();
+        }
+        if (target == long.class || target == Long.class) {
+            if (!isIntegral(raw)) {
+                throw mismatch(name, path, "整数", raw);
+            }
+            return ((Number) raw).longValue();
+        }
+        if (target == double.class || target == Double.class) {
+            if (!(raw instanceof Number number)) {
+                throw mismatch(name, path, "数字", raw);
+            }
+            return number.doubleValue();
+        }
+        if (target == float.class || target == Float.class) {
+            if (!(raw instanceof Number number)) {
+                throw mismatch(name, path, "数字", raw);
+            }
+            return number.floatValue();
+        }
+        if (target.isEnum()) {
+            if (raw instanceof String text) {
+                for (Object constant : target.getEnumConstants()) {
+                    if (((Enum<?>) constant).name().equalsIgnoreCase(text)) {
+                        return constant;
+                    }
+                }
+            }
+            String names = Arrays.stream(target.getEnumConstants())
+                    .map(constant -> ((Enum<?>) constant).name())
+                    .collect(Collectors.joining(", "));
+            throw new IllegalArgumentException("配置文件 \"" + name + "\" 的配置项 \"" + path + "\" 应为 " + names + " 之一，实际为 " + raw);
+        }
+        if (target.isRecord() || target.isInterface()) {
+            if (!(raw instanceof ConfigurationSection section)) {
+                throw mismatch(name, path, "配置节", raw);
+            }
+            return bindSection(target, section, name);
+        }
+        throw unsupported(type);
+    }
+
+    private static Schema compile(Class<?> type) {
+        List<Property> properties = new ArrayList<>();
+        if (type.isRecord()) {
+            RecordComponent[] components = type.getRecordComponents();
+            Class<?>[] parameterTypes = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                RecordComponent component = components[i];
+                parameterTypes[i] = component.getType();
+                properties.add(new Property(component.getName(),
+                        pathOf(component.getName(), component.getAnnotation(ConfigPath.class)),
+                        component.getGenericType(), null));
+            }
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+                constructor.setAccessible(true);
+                return new Schema(List.copyOf(properties), constructor);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalArgumentException("无法访问 " + type.getName() + " 的构造函数", e);
+            }
+        }
+        if (!type.isInterface()) {
+            throw new IllegalArgumentException("配置绑定类型必须是记录或接口: " + type.getName());
+        }
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            if (method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+                throw new IllegalArgumentException("配置接口方法必须无参数且有返回值: " + method);
+            }
+            properties.add(new Property(method.getName(),
+                    pathOf(method.getName(), method.getAnnotation(ConfigPath.class)),
+                    method.getGenericReturnType(), method));
+        }
+        properties.sort(Comparator.comparing(Property::name));
+        return new Schema(List.copyOf(properties), null);
+    }
+
+    private static String pathOf(String name, ConfigPath annotation) {
+        if (annotation != null) {
+            return annotation.value();
+        }
+        StringBuilder builder = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    builder.append('-');
+                }
+                builder.append(Character.toLowerCase(c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String fullPath(ConfigurationSection section, String path) {
+        String current = section.getCurrentPath();
+        return current == null || current.isEmpty() ? path : current + "." + path;
+    }
+
+    private static boolean isIntegral(Object raw) {
+        return raw instanceof Integer || raw instanceof Long || raw instanceof Short || raw instanceof Byte;
+    }
+
+    private static IllegalArgumentException missing(String name, String path) {
+        return new IllegalArgumentException("配置文件 \"" + name + "\" 缺少配置项 \"" + path + "\"");
+    }
+
+    private static IllegalArgumentException mismatch(String name, String path, String expected, Object raw) {
+        String actual = raw instanceof ConfigurationSection ? "配置节" : raw.getClass().getSimpleName();
+        return new IllegalArgumentException("配置文件 \"" + name + "\" 的配置项 \"" + path + "\" 应为" + expected + "，实际为" + actual);
+    }
+
+    private static IllegalArgumentException unsupported(Type type) {
+        return new IllegalArgumentException("不支持绑定的配置类型: " + type.getTypeName());
+    }
+
+    /**
+     * 接口绑定的调用处理器，所有配置项在绑定时已转换完成，读取时按方法查找并返回装箱后的值
+     */
+    private static final class ProxyHandler implements InvocationHandler {
+        private final Class<?> type;
+        private final Map<Method, Object> values;
+
+        private ProxyHandler(Class<?> type, Map<Method, Object> values) {
+            this.type = type;
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            Object value = values.get(method);
+            if (value != null || values.containsKey(method)) {
+                return value;
+            }
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> type.getSimpleName() + values.entrySet().stream()
+                        .map(entry -> entry.getKey().getName() + "=" + entry.getValue())
+                        .sorted()
+                        .collect(Collectors.joining(", ", "[", "]"));
+                default -> throw new UnsupportedOperationException(method.toString());
+            };
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.zeeyeh.nyt.config;
+
+import org.bukkit.configuration.Configuration;
+
+/**
+ * @author LeonKeiran
+ * @description 类型化配置绑定，持有由配置文件生成的不可变实例，配置文件重新加载时整体替换
+ * @date 2026/10/17 16:25
+ */
+public final class ConfigBinding<T> {
+    private final String name;
+    private final String path;
+    private final Class<T> type;
+    private volatile T value;
+
+    ConfigBinding(String name, String path, Class<T> type, T value) {
+        this.name = name;
+        this.path = path;
+        this.type = type;
+        this.value = value;
+    }
+
+    /**
+     * 获取当前绑定的实例，热路径只需读取这里
+     *
+     * @return 绑定实例
+     */
+    public T get() {
+        return value;
+    }
+
+    /**
+     * 按新的配置文件生成实例，不修改当前实例
+     *
+     * @param configuration 配置文件
+     * @return 新实例
+     */
+    T bind(Configuration configuration) {
+        return ConfigBinder.bind(type, configuration, path, name);
+    }
+
+    /**
+     * 替换当前实例
+     *
+     * @param value 新实例
+     */
+    @SuppressWarnings("unchecked")
+    void set(Object value) {
+        this.value = (T) value;
+    }
+
+    /**
+     * 获取配置文件名称
+     *
+     * @return 配置文件名称，不包含后缀
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取绑定位置，空字符串表示配置文件根节点
+     *
+     * @return 配置路径
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * 获取绑定类型
+     *
+     * @return 绑定类型
+     */
+    public Class<T> getType() {
+        return type;
+    }
+}
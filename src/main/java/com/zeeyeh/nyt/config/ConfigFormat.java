@@ -0,0 +1,60 @@
+package com.zeeyeh.nyt.config;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * @author LeonKeiran
+ * @description 配置文件格式，根据文件后缀选择对应的配置文件处理器
+ * @date 2026/10/17 17:05
+ */
+public enum ConfigFormat {
+    YAML("yml", YamlConfiguration::new),
+    JSON("json", JsonConfiguration::new),
+    JSONB("jsonb", JsonbConfiguration::new);
+
+    private final String suffix;
+    private final Supplier<FileConfiguration> factory;
+
+    ConfigFormat(String suffix, Supplier<FileConfiguration> factory) {
+        this.suffix = suffix;
+        this.factory = factory;
+    }
+
+    /**
+     * 根据文件后缀获取配置文件格式，未知后缀按YAML处理
+     *
+     * @param suffix 文件后缀，不包含点
+     * @return 配置文件格式
+     */
+    public static ConfigFormat forSuffix(String suffix) {
+        String normalized = suffix.toLowerCase(Locale.ROOT);
+        for (ConfigFormat format : values()) {
+            if (format.suffix.equals(normalized)) {
+                return format;
+            }
+        }
+        return YAML;
+    }
+
+    /**
+     * 创建新的配置文件处理器
+     *
+     * @return 配置文件处理器
+     */
+    public FileConfiguration create() {
+        return factory.get();
+    }
+
+    /**
+     * 获取文件后缀
+     *
+     * @return 文件后缀，不包含点
+     */
+    public String getSuffix() {
+        return suffix;
+    }
+}
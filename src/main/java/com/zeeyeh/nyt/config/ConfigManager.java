@@ -2,15 +2,20 @@ package com.zeeyeh.nyt.config;
 
 import org.bukkit.configuration.Configuration;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.Plugin;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * 配置管理器类，用于管理插件的配置文件
@@ -25,8 +30,16 @@ public class ConfigManager {
     public static final String DEFAULT_CONFIG_SUFFIX = "yml";
     // 配置文件处理器
     private FileConfiguration configurationHandler;
-    // 存储所有加载的配置文件
-    private final Map<String, Configuration> configs;
+    // 存储所有加载的配置文件，不可变快照，重新加载时整体替换
+    private volatile Map<String, Configuration> configs;
+    // 保证多个加载线程发布快照时不互相覆盖
+    private final Object publishLock = new Object();
+    // 按需加载的大型配置文件，不进入configs快照
+    private final Map<String, LazyConfig> lazyConfigs = new ConcurrentHashMap<>();
+    // 类型化配置绑定，配置文件重新加载时重新绑定
+    private final List<ConfigBinding<?>> bindings = new CopyOnWriteArrayList<>();
+    // 延迟写入的配置保存器
+    private final ConfigSaver saver;
 
     /**
      * 构造函数，初始化配置管理器
@@ -39,12 +52,13 @@ public class ConfigManager {
 
     /**
      * 构造函数，初始化配置管理器，并指定配置文件后缀
+     * 配置文件处理器根据后缀选择，支持yml、json与jsonb
      *
      * @param plugin 插件实例
      * @param suffix 配置文件后缀
      */
     public ConfigManager(Plugin plugin, String suffix) {
-        this(plugin, suffix, new YamlConfiguration());
+        this(plugin, suffix, ConfigFormat.forSuffix(suffix).create());
     }
 
     /**
@@ -58,7 +72,8 @@ public class ConfigManager {
         this.plugin = plugin;
         this.suffix = suffix;
         this.configurationHandler = configurationHandler;
-        configs = new HashMap<>();
+        this.saver = new ConfigSaver(plugin, this::findFileConfig);
+        configs = Map.of();
     }
 
     /**
@@ -73,9 +88,12 @@ public class ConfigManager {
         } else {
             File configFile = new File(getPlugin().getDataFolder(), "config." + getSuffix());
             try {
-                Files.createFile(configFile.toPath());
+                Files.createDirectories(configFile.toPath().getParent());
+                if (!configFile.exists()) {
+                    Files.createFile(configFile.toPath());
+                }
             } catch (IOException e) {
-                throw new RuntimeException("默认配置文件初始化失败");
+                throw new RuntimeException("默认配置文件初始化失败", e);
             }
         }
         loadConfig("config");
@@ -87,7 +105,70 @@ public class ConfigManager {
      * @param name 配置文件名称，不包含后缀
      */
     public void loadConfig(String name) {
-        loadConfig(name, getConfigurationHandler());
+        loadConfig(name, newConfiguration());
+    }
+
+    /**
+     * 重新加载指定名称的配置文件，可在任意线程调用
+     * 解析完成后才替换快照，解析失败时保留原有数据
+     *
+     * @param name 配置文件名称，不包含后缀
+     */
+    public void reloadConfig(String name) {
+        LazyConfig lazyConfig = this.lazyConfigs.get(name);
+        if (lazyConfig == null) {
+            loadConfig(name);
+            return;
+        }
+        try {
+            lazyConfig.reindex();
+        } catch (IOException e) {
+            throw new RuntimeException("配置文件 \"" + name + "." + getSuffix() + "\" 重新建立索引失败", e);
+        }
+    }
+
+    /**
+     * 以按需加载方式打开YAML配置文件，只建立顶层键索引，配置节在首次访问时才解析
+     * 按需加载的配置文件不会出现在getConfigs中，异步加载所有配置文件时也会跳过
+     *
+     * @param name         配置文件名称，不包含后缀
+     * @param memoryBudget 已解析配置节的内存预算，单位字节
+     * @return 按需加载的配置文件
+     */
+    public LazyConfig loadLazyConfig(String name, long memoryBudget) {
+        if (ConfigFormat.forSuffix(getSuffix()) != ConfigFormat.YAML) {
+            throw new IllegalStateException("只有YAML配置文件支持按需加载");
+        }
+        File file = new File(getPlugin().getDataFolder(), name + "." + getSuffix());
+        if (!file.exists()) {
+            throw new RuntimeException("配置文件 \"" + name + "." + getSuffix() + "\" 不存在");
+        }
+        try {
+            LazyConfig lazyConfig = LazyConfig.open(file, memoryBudget);
+            this.lazyConfigs.put(name, lazyConfig);
+            return lazyConfig;
+        } catch (IOException e) {
+            throw new RuntimeException("配置文件 \"" + name + "." + getSuffix() + "\" 建立索引失败", e);
+        }
+    }
+
+    /**
+     * 获取按需加载的配置文件
+     *
+     * @param name 配置文件名称，不包含后缀
+     * @return 按需加载的配置文件，未打开时返回null
+     */
+    public LazyConfig getLazyConfig(String name) {
+        return this.lazyConfigs.get(name);
+    }
+
+    /**
+     * 获取所有按需加载的配置文件
+     *
+     * @return 配置文件名称到按需加载配置文件的映射
+     */
+    public Map<String, LazyConfig> getLazyConfigs() {
+        return Map.copyOf(this.lazyConfigs);
     }
 
     /**
@@ -96,21 +177,114 @@ public class ConfigManager {
      * @return 默认配置文件，如果未加载则返回null
      */
     public Configuration getDefaultConfig() {
-        if (this.configs.containsKey("config")) {
-            return this.configs.get("config");
-        }
-        return null;
+        return this.configs.get("config");
     }
 
     /**
      * 获取所有加载的配置文件
+     * 不兼容变更：返回值由可修改的HashMap改为当前快照的不可变映射，调用put或remove会抛出UnsupportedOperationException，
+     * 快照也不会随之后的重新加载更新。添加配置文件请使用 {@link #loadConfig(String)} 或 {@link #loadConfig(String, FileConfiguration)}，
+     * 需要最新内容时每次重新调用本方法
      *
-     * @return 包含所有配置文件的映射
+     * @return 包含所有配置文件的不可变映射
      */
     public Map<String, Configuration> getConfigs() {
         return configs;
     }
 
+    /**
+     * 标记配置文件已修改，合并窗口结束后在后台线程保存，需要在主线程或全局区域线程修改配置并调用
+     *
+     * @param name 配置文件名称，不包含后缀
+     */
+    public void markDirty(String name) {
+        // 未加载时立即报错，而不是在保存时静默跳过
+        getFileConfig(name);
+        this.saver.markDirty(name, getConfigPath(name));
+    }
+
+    /**
+     * 立即保存配置文件，复制在当前线程完成，序列化与写入在后台线程完成，需要在主线程或全局区域线程调用
+     *
+     * @param name 配置文件名称，不包含后缀
+     * @return 写入完成时结束的Future
+     */
+    public CompletableFuture<Void> saveConfig(String name) {
+        return this.saver.save(name, getFileConfig(name), getConfigPath(name));
+    }
+
+    /**
+     * 保存所有已标记的配置文件并等待写入完成，在插件关闭时调用
+     *
+     * @param timeout 最长等待时间
+     * @return 是否在等待时间内全部写入完成
+     */
+    public boolean flush(Duration timeout) {
+        return this.saver.shutdown(timeout);
+    }
+
+    /**
+     * 获取配置保存器
+     *
+     * @return 配置保存器
+     */
+    public ConfigSaver getSaver() {
+        return saver;
+    }
+
+    private FileConfiguration getFileConfig(String name) {
+        FileConfiguration configuration = findFileConfig(name);
+        if (configuration == null) {
+            throw new IllegalStateException("配置文件 \"" + name + "\" 尚未加载");
+        }
+        return configuration;
+    }
+
+    private FileConfiguration findFileConfig(String name) {
+        return this.configs.get(name) instanceof FileConfiguration configuration ? configuration : null;
+    }
+
+    private Path getConfigPath(String name) {
+        return getPlugin().getDataFolder().toPath().resolve(name + "." + getSuffix());
+    }
+
+    /**
+     * 将配置文件绑定为记录或接口实例，配置文件重新加载时自动重新绑定
+     * 所有配置项在绑定时一次性校验并转换，读取时不再解析路径
+     * 记录类型的配置项保存在final字段中，读取没有额外开销，热路径上读取的配置应绑定为记录；
+     * 接口类型通过动态代理实现，每次读取都有反射分派、Map查找与基本类型拆箱，只适合低频读取
+     *
+     * @param name 配置文件名称，不包含后缀
+     * @param type 记录或接口类型
+     * @return 配置绑定
+     * @throws IllegalArgumentException 如果配置项缺失、类型不匹配或类型不支持绑定
+     */
+    public <T> ConfigBinding<T> bind(String name, Class<T> type) {
+        return bind(name, "", type);
+    }
+
+    /**
+     * 将配置文件中的配置节绑定为记录或接口实例，配置文件重新加载时自动重新绑定
+     * 接口绑定的读取开销见 {@link #bind(String, Class)}
+     *
+     * @param name 配置文件名称，不包含后缀
+     * @param path 配置节路径，空字符串表示根节点
+     * @param type 记录或接口类型
+     * @return 配置绑定
+     * @throws IllegalArgumentException 如果配置项缺失、类型不匹配或类型不支持绑定
+     */
+    public <T> ConfigBinding<T> bind(String name, String path, Class<T> type) {
+        synchronized (this.publishLock) {
+            Configuration configuration = this.configs.get(name);
+            if (configuration == null) {
+                throw new IllegalStateException("配置文件 \"" + name + "\" 尚未加载");
+            }
+            ConfigBinding<T> binding = new ConfigBinding<>(name, path, type, ConfigBinder.bind(type, configuration, path, name));
+            this.bindings.add(binding);
+            return binding;
+        }
+    }
+
     /**
      * 设置配置文件处理器
      *
@@ -124,7 +298,11 @@ public class ConfigManager {
      * 清空所有已加载的配置文件
      */
     public void clear() {
-        this.configs.clear();
+        synchronized (this.publishLock) {
+            this.configs = Map.of();
+            this.bindings.clear();
+            this.lazyConfigs.clear();
+        }
     }
 
     /**
@@ -134,15 +312,80 @@ public class ConfigManager {
      * @param configurationHandler 配置文件处理器
      */
     public void loadConfig(String name, FileConfiguration configurationHandler) {
+        publish(Map.of(name, parseConfig(name, configurationHandler)));
+    }
+
+    /**
+     * 异步并行加载数据目录中所有指定后缀的配置文件，已加载与按需加载的配置文件不会重新解析
+     * 所有文件解析完成后一次性发布，单个文件失败不影响其他文件
+     *
+     * @return 加载结果，包含配置管理器本身与每个文件的耗时
+     */
+    public CompletableFuture<LoadReport<ConfigManager>> loadConfigsAsync() {
+        List<String> names = ParallelLoader.discover(getPlugin().getDataFolder(), getSuffix());
+        Map<String, Configuration> loaded = this.configs;
+        names.removeIf(name -> loaded.containsKey(name) || this.lazyConfigs.containsKey(name));
+        return ParallelLoader.load(names, name -> parseConfig(name, newConfiguration()))
+                .thenApply(report -> {
+                    publish(report.registry());
+                    return report.withRegistry(this);
+                });
+    }
+
+    /**
+     * 解析配置文件，不修改已加载的配置
+     *
+     * @param name                 配置文件名称，不包含后缀
+     * @param configurationHandler 配置文件处理器
+     * @return 解析后的配置文件
+     */
+    private FileConfiguration parseConfig(String name, FileConfiguration configurationHandler) {
         File file = new File(getPlugin().getDataFolder(), name + "." + getSuffix());
         if (!file.exists()) {
             throw new RuntimeException("配置文件 \"" + name + "." + getSuffix() + "\" 不存在");
         }
         try {
             configurationHandler.load(file);
-            this.configs.put(name, configurationHandler);
         } catch (Exception e) {
-            throw new RuntimeException("配置文件加载失败");
+            throw new RuntimeException("配置文件 \"" + name + "." + getSuffix() + "\" 加载失败", e);
+        }
+        return configurationHandler;
+    }
+
+    /**
+     * 发布包含新配置文件的快照
+     *
+     * @param loaded 配置文件名称到配置文件的映射
+     */
+    private void publish(Map<String, ? extends Configuration> loaded) {
+        synchronized (this.publishLock) {
+            // 先完成所有重新绑定，任一绑定校验失败时不发布，继续使用原有配置
+            Map<ConfigBinding<?>, Object> rebound = new HashMap<>();
+            for (ConfigBinding<?> binding : this.bindings) {
+                Configuration configuration = loaded.get(binding.getName());
+                if (configuration != null) {
+                    rebound.put(binding, binding.bind(configuration));
+                }
+            }
+            Map<String, Configuration> copy = new HashMap<>(this.configs);
+            copy.putAll(loaded);
+            this.configs = Map.copyOf(copy);
+            rebound.forEach(ConfigBinding::set);
+            // 被替换的配置实例上的修改已丢失，不再写回磁盘，避免覆盖外部修改
+            loaded.keySet().forEach(this.saver::discard);
+        }
+    }
+
+    /**
+     * 创建与配置文件处理器同类型的新实例，避免多个配置文件共享同一份数据
+     *
+     * @return 新的配置文件处理器
+     */
+    private FileConfiguration newConfiguration() {
+        try {
+            return getConfigurationHandler().getClass().getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            return ConfigFormat.forSuffix(getSuffix()).create();
         }
     }
 
@@ -0,0 +1,24 @@
+package com.zeeyeh.nyt.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author LeonKeiran
+ * @description 指定绑定配置时记录组件或接口方法对应的配置路径
+ * 未标注时使用组件名称转换后的短横线格式，例如 dumpInterval 对应 dump-interval
+ * @date 2026/10/17 16:20
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.RECORD_COMPONENT, ElementType.METHOD})
+public @interface ConfigPath {
+
+    /**
+     * 相对于绑定位置的配置路径
+     *
+     * @return 配置路径
+     */
+    String value();
+}
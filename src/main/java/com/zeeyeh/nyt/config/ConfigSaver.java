@@ -0,0 +1,250 @@
+package com.zeeyeh.nyt.config;
+
+import com.zeeyeh.nyt.util.FileUtil;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * @author LeonKeiran
+ * @description 延迟写入的配置保存器，合并一段时间内的多次修改，在主线程复制配置后由后台线程序列化并原子写入
+ * 同一个写入线程按提交顺序写入，同一文件不会出现新内容被旧内容覆盖的情况
+ * 标记时只记录名称与保存位置，保存时才获取当前的配置实例，配置被重新加载后需要调用 {@link #discard(String)} 丢弃旧的标记
+ * @date 2026/10/17 17:40
+ */
+public class ConfigSaver {
+    private final Plugin plugin;
+    // 按名称获取当前的配置实例，配置已卸载时返回null
+    private final Function<String, FileConfiguration> resolver;
+    // 单线程写入，保证同一文件按修改顺序落盘
+    private final ExecutorService writer;
+    // 等待保存的配置文件，按标记顺序排列
+    private final Map<String, Target> dirty = new LinkedHashMap<>();
+    private ScheduledTask pendingTask;
+    private volatile long delayTicks = 40L;
+    private volatile FileUtil.SyncMode syncMode = FileUtil.SyncMode.FILE;
+    private volatile Consumer<Path> writeListener = path -> {
+    };
+
+    /**
+     * 构造函数，初始化配置保存器
+     *
+     * @param plugin   插件实例
+     * @param resolver 按名称获取当前配置实例的函数，配置已卸载时返回null
+     */
+    public ConfigSaver(Plugin plugin, Function<String, FileConfiguration> resolver) {
+        this.plugin = plugin;
+        this.resolver = resolver;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, plugin.getName() + "-config-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 等待保存的配置文件，配置实例在保存时才获取，避免写回已被重新加载替换的旧实例
+     *
+     * @param file 保存位置
+     */
+    private record Target(Path file) {
+    }
+
+    /**
+     * 标记配置文件已修改，在合并窗口结束后保存，窗口内的多次标记只保存一次，需要在主线程或全局区域线程调用
+     *
+     * @param name 配置文件名称
+     * @param file 保存位置
+     */
+    public void markDirty(String name, Path file) {
+        synchronized (this.dirty) {
+            this.dirty.put(name, new Target(file));
+            if (this.pendingTask == null) {
+                this.pendingTask = this.plugin.getServer().getGlobalRegionScheduler()
+                        .runDelayed(this.plugin, task -> flushDirty(), this.delayTicks);
+            }
+        }
+    }
+
+    /**
+     * 立即保存配置文件，复制在当前线程完成，序列化与写入在后台线程完成，需要在主线程或全局区域线程调用
+     *
+     * @param name          配置文件名称，用于日志
+     * @param configuration 配置文件
+     * @param file          保存位置
+     * @return 写入完成时结束的Future
+     */
+    public CompletableFuture<Void> save(String name, FileConfiguration configuration, Path file) {
+        synchronized (this.dirty) {
+            this.dirty.remove(name);
+        }
+        return submit(name, copyOf(configuration), file);
+    }
+
+    /**
+     * 丢弃配置文件的修改标记，在配置文件被重新加载、内存中的修改已被替换时调用
+     *
+     * @param name 配置文件名称
+     */
+    public void discard(String name) {
+        synchronized (this.dirty) {
+            this.dirty.remove(name);
+        }
+    }
+
+    /**
+     * 立即保存所有已标记的配置文件，需要在主线程或全局区域线程调用
+     *
+     * @return 所有写入完成时结束的Future
+     */
+    public CompletableFuture<Void> flushDirty() {
+        List<Map.Entry<String, Target>> targets;
+        synchronized (this.dirty) {
+            targets = new ArrayList<>(this.dirty.entrySet());
+            this.dirty.clear();
+            if (this.pendingTask != null) {
+                this.pendingTask.cancel();
+                this.pendingTask = null;
+            }
+        }
+        List<CompletableFuture<Void>> writes = new ArrayList<>(targets.size());
+        for (Map.Entry<String, Target> entry : targets) {
+            FileConfiguration configuration = this.resolver.apply(entry.getKey());
+            if (configuration != null) {
+                writes.add(submit(entry.getKey(), copyOf(configuration), entry.getValue().file()));
+            }
+        }
+        return CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * 保存所有已标记的配置文件并停止写入线程，在插件关闭时调用
+     *
+     * @param timeout 最长等待时间
+     * @return 是否在等待时间内全部写入完成
+     */
+    public boolean shutdown(Duration timeout) {
+        flushDirty();
+        this.writer.shutdown();
+        try {
+            return this.writer.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 设置合并窗口
+     *
+     * @param delay 合并窗口，最少一个tick
+     */
+    public void setDelay(Duration delay) {
+        this.delayTicks = Math.max(1L, delay.toMillis() / 50L);
+    }
+
+    /**
+     * 设置写入后同步到磁盘的方式
+     *
+     * @param syncMode 同步方式
+     */
+    public void setSyncMode(FileUtil.SyncMode syncMode) {
+        this.syncMode = syncMode;
+    }
+
+    /**
+     * 设置写入完成回调，在写入线程中调用，用于让文件监听器忽略自身的写入
+     *
+     * @param writeListener 写入完成回调
+     */
+    public void setWriteListener(Consumer<Path> writeListener) {
+        this.writeListener = writeListener;
+    }
+
+    private CompletableFuture<Void> submit(String name, FileConfiguration snapshot, Path file) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                byte[] data = snapshot instanceof JsonbConfiguration jsonb
+                        ? jsonb.saveToBytes()
+                        : snapshot.saveToString().getBytes(StandardCharsets.UTF_8);
+                FileUtil.writeAtomically(file, data, this.syncMode);
+                this.writeListener.accept(file);
+            } catch (IOException | RuntimeException e) {
+                this.plugin.getLogger().log(Level.WARNING, "配置文件 \"" + name + "\" 保存失败", e);
+            }
+        }, this.writer);
+    }
+
+    /**
+     * 复制配置文件的内容、注释与页眉页脚，复制后的配置可以在其他线程序列化
+     * 可序列化对象在复制时转换为带类型标记的Map，读取时仍然反序列化为原对象
+     *
+     * @param source 配置文件
+     * @return 配置文件副本
+     */
+    static FileConfiguration copyOf(FileConfiguration source) {
+        FileConfiguration copy;
+        try {
+            copy = source.getClass().getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            copy = new YamlConfiguration();
+        }
+        for (String key : source.getKeys(true)) {
+            if (source.isConfigurationSection(key)) {
+                copy.createSection(key);
+            } else {
+                copy.set(key, copyValue(source.get(key)));
+            }
+            copy.setComments(key, source.getComments(key));
+            copy.setInlineComments(key, source.getInlineComments(key));
+        }
+        copy.options().setHeader(source.options().getHeader());
+        copy.options().setFooter(source.options().getFooter());
+        return copy;
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object element : list) {
+                copy.add(copyValue(element));
+            }
+            return copy;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((key, element) -> copy.put(key, copyValue(element)));
+            return copy;
+        }
+        if (value instanceof ConfigurationSection section) {
+            return copyValue(section.getValues(false));
+        }
+        if (value instanceof ConfigurationSerializable serializable) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            copy.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, ConfigurationSerialization.getAlias(serializable.getClass()));
+            serializable.serialize().forEach((key, element) -> copy.put(key, copyValue(element)));
+            return copy;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,201 @@
+package com.zeeyeh.nyt.config;
+
+import org.bukkit.plugin.Plugin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * @author LeonKeiran
+ * @description 配置文件监听器，文件变化后在后台线程重新解析，由各管理器整体替换快照
+ * @date 2026/10/17 15:00
+ */
+public class ConfigWatcher implements Closeable {
+    // 编辑器保存文件时可能触发多次事件，静默一段时间后才重新加载
+    private static final long QUIET_PERIOD_MILLIS = 250L;
+    private final Plugin plugin;
+    private final WatchService watchService;
+    private final Map<WatchKey, Registration> registrations = new ConcurrentHashMap<>();
+    // 等待重新加载的文件与最后一次变化的时间
+    private final Map<Path, Long> pending = new HashMap<>();
+    // 由插件自身写入的文件与写入后的修改时间，这些变化不触发重新加载
+    private final Map<Path, Long> selfWrites = new ConcurrentHashMap<>();
+    private Thread thread;
+
+    /**
+     * 监听目录注册信息
+     *
+     * @param directory 监听的目录
+     * @param suffix    文件后缀，不包含点
+     * @param reloader  重新加载函数，参数为不包含后缀的文件名
+     */
+    private record Registration(Path directory, String suffix, Consumer<String> reloader) {
+    }
+
+    /**
+     * 构造函数，初始化配置文件监听器
+     *
+     * @param plugin 插件实例
+     * @throws IOException 如果无法创建文件监听服务
+     */
+    public ConfigWatcher(Plugin plugin) throws IOException {
+        this.plugin = plugin;
+        this.watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    /**
+     * 监听语言管理器的locales目录
+     *
+     * @param languageManager 语言管理器
+     * @throws IOException 如果目录无法监听
+     */
+    public void watch(LanguageManager languageManager) throws IOException {
+        Path directory = languageManager.getPlugin().getDataFolder().toPath().resolve("locales");
+        watch(directory, languageManager.getSuffix(), languageManager::reloadLanguage);
+    }
+
+    /**
+     * 监听配置管理器的数据目录，只重新加载已经加载过的配置文件
+     *
+     * @param configManager 配置管理器
+     * @throws IOException 如果目录无法监听
+     */
+    public void watch(ConfigManager configManager) throws IOException {
+        watch(configManager.getPlugin().getDataFolder().toPath(), configManager.getSuffix(), name -> {
+            if (configManager.getConfigs().containsKey(name) || configManager.getLazyConfig(name) != null) {
+                configManager.reloadConfig(name);
+            }
+        });
+    }
+
+    /**
+     * 监听指定目录中指定后缀的文件
+     *
+     * @param directory 目录
+     * @param suffix    文件后缀，不包含点
+     * @param reloader  重新加载函数，参数为不包含后缀的文件名
+     * @throws IOException 如果目录无法监听
+     */
+    public void watch(Path directory, String suffix, Consumer<String> reloader) throws IOException {
+        Files.createDirectories(directory);
+        WatchKey key = directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        registrations.put(key, new Registration(directory, suffix, reloader));
+    }
+
+    /**
+     * 记录由插件自身写入的文件，文件修改时间未再变化时不重新加载，可在任意线程调用
+     *
+     * @param file 写入的文件
+     */
+    public void ignoreSelfWrite(Path file) {
+        try {
+            this.selfWrites.put(file.toAbsolutePath().normalize(), Files.getLastModifiedTime(file).toMillis());
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * 启动后台监听线程
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this::run, plugin.getName() + "-config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 停止监听并释放资源
+     */
+    @Override
+    public synchronized void close() {
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    collect(key);
+                }
+                reloadSettled();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+        }
+    }
+
+    private void collect(WatchKey key) {
+        Registration registration = registrations.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (registration != null && event.context() instanceof Path path) {
+                pending.put(registration.directory().resolve(path), System.currentTimeMillis());
+            }
+        }
+        if (!key.reset()) {
+            registrations.remove(key);
+        }
+    }
+
+    private void reloadSettled() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Path, Long>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Long> entry = iterator.next();
+            if (now - entry.getValue() < QUIET_PERIOD_MILLIS) {
+                continue;
+            }
+            iterator.remove();
+            reload(entry.getKey());
+        }
+    }
+
+    private void reload(Path file) {
+        Long written = this.selfWrites.remove(file.toAbsolutePath().normalize());
+        try {
+            if (written != null && written == Files.getLastModifiedTime(file).toMillis()) {
+                return;
+            }
+        } catch (IOException ignored) {
+        }
+        String fileName = file.getFileName().toString();
+        for (Registration registration : registrations.values()) {
+            String extension = "." + registration.suffix();
+            if (!file.getParent().equals(registration.directory()) || !fileName.endsWith(extension) || !Files.isRegularFile(file)) {
+                continue;
+            }
+            String name = fileName.substring(0, fileName.length() - extension.length());
+            try {
+                registration.reloader().accept(name);
+                plugin.getLogger().info("已重新加载 " + fileName);
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "重新加载 " + fileName + " 失败，继续使用原有数据", e);
+            }
+        }
+    }
+}
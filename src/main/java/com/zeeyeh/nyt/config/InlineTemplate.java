@@ -0,0 +1,138 @@
+package com.zeeyeh.nyt.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * @author LeonKeiran
+ * @description 预编译内联语言键模板，消息中的 (key) 在展开时替换为对应语言的文本，一条消息可以包含多个语言键
+ * 使用 \( 与 \) 输出原样的括号，\\ 输出反斜杠；空括号与未闭合的括号按普通文本处理
+ * 无法解析的语言键同样按普通文本处理，原样输出包括括号在内的内容
+ * @date 2026/10/17 19:10
+ */
+public final class InlineTemplate {
+    private final String source;
+    // 文本片段，数量比语言键多一个，转义字符已还原
+    private final String[] literals;
+    private final String[] keys;
+    private final int literalLength;
+
+    private InlineTemplate(String source, String[] literals, String[] keys) {
+        this.source = source;
+        this.literals = literals;
+        this.keys = keys;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 编译内联语言键模板
+     *
+     * @param source 消息内容
+     * @return 内联语言键模板
+     */
+    public static InlineTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        StringBuilder literal = new StringBuilder(source.length());
+        int length = source.length();
+        int i = 0;
+        while (i < length) {
+            char c = source.charAt(i);
+            if (c == '\\' && i + 1 < length && isEscapable(source.charAt(i + 1))) {
+                literal.append(source.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            if (c == '(') {
+                int end = findKeyEnd(source, i + 1);
+                if (end > i + 1) {
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    keys.add(source.substring(i + 1, end));
+                    i = end + 1;
+                    continue;
+                }
+            }
+            literal.append(c);
+            i++;
+        }
+        literals.add(literal.toString());
+        return new InlineTemplate(source, literals.toArray(new String[0]), keys.toArray(new String[0]));
+    }
+
+    /**
+     * 展开模板中的语言键
+     *
+     * @param resolver 语言键到语言文本的转换函数，返回null表示该键不存在，此时原样输出 (key)
+     * @return 展开后的文本
+     */
+    public String expand(UnaryOperator<String> resolver) {
+        if (keys.length == 0) {
+            return literals[0];
+        }
+        String[] values = new String[keys.length];
+        int length = literalLength;
+        for (int i = 0; i < keys.length; i++) {
+            String value = resolver.apply(keys[i]);
+            values[i] = value == null ? "(" + keys[i] + ")" : value;
+            length += values[i].length();
+        }
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < keys.length; i++) {
+            builder.append(literals[i]).append(values[i]);
+        }
+        return builder.append(literals[keys.length]).toString();
+    }
+
+    /**
+     * 判断模板是否包含语言键
+     *
+     * @return 是否包含语言键
+     */
+    public boolean hasKeys() {
+        return keys.length > 0;
+    }
+
+    /**
+     * 获取模板中的语言键，按出现顺序排列
+     *
+     * @return 语言键列表
+     */
+    public List<String> getKeys() {
+        return List.of(keys);
+    }
+
+    /**
+     * 获取原始消息内容
+     *
+     * @return 消息内容
+     */
+    public String getSource() {
+        return source;
+    }
+
+    private static boolean isEscapable(char c) {
+        return c == '(' || c == ')' || c == '\\';
+    }
+
+    /**
+     * 查找语言键的右括号，语言键中出现左括号或反斜杠时不视为语言键
+     */
+    private static int findKeyEnd(String source, int start) {
+        for (int i = start; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == ')') {
+                return i;
+            }
+            if (c == '(' || c == '\\') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,176 @@
+package com.zeeyeh.nyt.config;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONException;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author LeonKeiran
+ * @description JSON格式的配置文件，使用fastjson2流式读取，对象直接展开为配置节，不生成中间的JSON对象树
+ * 与YAML配置一致，列表中的对象保持为Map；可序列化对象写出为带 == 类型键的对象，读取时按类型键还原
+ * @date 2026/10/17 16:50
+ */
+public class JsonConfiguration extends FileConfiguration {
+
+    @Override
+    public String saveToString() {
+        return JSON.toJSONString(toMap(this), JSONWriter.Feature.PrettyFormat, JSONWriter.Feature.WriteMapNullValue);
+    }
+
+    @Override
+    public void loadFromString(String contents) throws InvalidConfigurationException {
+        clearValues();
+        if (contents.isBlank()) {
+            return;
+        }
+        try (JSONReader reader = JSONReader.of(contents)) {
+            read(reader);
+        } catch (JSONException e) {
+            throw new InvalidConfigurationException("JSON配置解析失败", e);
+        }
+    }
+
+    /**
+     * 从读取器中读取根对象，替换当前内容
+     *
+     * @param reader JSON读取器
+     * @throws InvalidConfigurationException 如果根节点不是对象
+     */
+    protected void read(JSONReader reader) throws InvalidConfigurationException {
+        if (!reader.nextIfObjectStart()) {
+            throw new InvalidConfigurationException("配置文件的根节点必须是JSON对象");
+        }
+        try {
+            readSection(reader, this);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidConfigurationException("配置中的对象无法反序列化", e);
+        }
+    }
+
+    /**
+     * 清空当前内容
+     */
+    protected void clearValues() {
+        for (String key : getKeys(false)) {
+            set(key, null);
+        }
+    }
+
+    /**
+     * 将配置节转换为嵌套Map，用于写出
+     *
+     * @param section 配置节
+     * @return 嵌套Map
+     */
+    protected static Map<String, Object> toMap(ConfigurationSection section) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : section.getValues(false).entrySet()) {
+            Object value = entry.getValue();
+            map.put(entry.getKey(), serialize(entry.getValue()));
+        }
+        return map;
+    }
+
+    /**
+     * 将配置值转换为可以写出的值，与YAML配置一致，可序列化对象转换为以 == 键标记类型的Map
+     *
+     * @param value 配置值
+     * @return 可以写出的值
+     */
+    private static Object serialize(Object value) {
+        if (value instanceof ConfigurationSection section) {
+            return toMap(section);
+        }
+        if (value instanceof ConfigurationSerializable serializable) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, ConfigurationSerialization.getAlias(serializable.getClass()));
+            serializable.serialize().forEach((key, element) -> map.put(key, serialize(element)));
+            return map;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> result = new ArrayList<>(list.size());
+            for (Object element : list) {
+                result.add(serialize(element));
+            }
+            return result;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            map.forEach((key, element) -> result.put(String.valueOf(key), serialize(element)));
+            return result;
+        }
+        return value;
+    }
+
+    private static void readSection(JSONReader reader, ConfigurationSection section) {
+        while (!reader.nextIfObjectEnd()) {
+            String key = reader.readFieldName();
+            if (reader.isObject()) {
+                reader.nextIfObjectStart();
+                ConfigurationSection child = section.createSection(key);
+                readSection(reader, child);
+                // 带类型键的对象读取完成后还原为可序列化对象，替换刚创建的配置节
+                if (child.contains(ConfigurationSerialization.SERIALIZED_TYPE_KEY)) {
+                    section.set(key, ConfigurationSerialization.deserializeObject(toValues(child)));
+                }
+            } else {
+                section.set(key, normalize(reader.readAny()));
+            }
+        }
+    }
+
+    /**
+     * 将配置节还原为嵌套Map，用于反序列化，其中的值已经读取完成，不再转换
+     */
+    private static Map<String, Object> toValues(ConfigurationSection section) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : section.getValues(false).entrySet()) {
+            Object value = entry.getValue();
+            map.put(entry.getKey(), value instanceof ConfigurationSection child ? toValues(child) : value);
+        }
+        return map;
+    }
+
+    /**
+     * 将fastjson2读取的数字转换为YAML配置使用的类型，使getDouble、isInt等方法表现一致
+     * 带 == 类型键的Map还原为可序列化对象
+     *
+     * @param value 读取的值
+     * @return 转换后的值
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.doubleValue();
+        }
+        if (value instanceof BigInteger integer) {
+            return integer.bitLength() < 64 ? (Object) integer.longValue() : integer.doubleValue();
+        }
+        if (value instanceof List<?> list) {
+            List<Object> result = new ArrayList<>(list.size());
+            for (Object element : list) {
+                result.add(normalize(element));
+            }
+            return result;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            map.forEach((key, element) -> result.put(String.valueOf(key), normalize(element)));
+            return result.containsKey(ConfigurationSerialization.SERIALIZED_TYPE_KEY)
+                    ? ConfigurationSerialization.deserializeObject(result) : result;
+        }
+        return value;
+    }
+}
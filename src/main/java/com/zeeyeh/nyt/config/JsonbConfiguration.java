@@ -0,0 +1,68 @@
+package com.zeeyeh.nyt.config;
+
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONException;
+import com.alibaba.fastjson2.JSONReader;
+import org.bukkit.configuration.InvalidConfigurationException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+
+/**
+ * @author LeonKeiran
+ * @description JSONB二进制格式的配置文件，适合体积较大的生成数据，例如商店、礼包与掉落表
+ * 文件以二进制读写，文本方法只用于查看内容
+ * @date 2026/10/17 17:00
+ */
+public class JsonbConfiguration extends JsonConfiguration {
+
+    @Override
+    public void load(File file) throws IOException, InvalidConfigurationException {
+        loadFromBytes(Files.readAllBytes(file.toPath()));
+    }
+
+    @Override
+    public void load(Reader reader) throws InvalidConfigurationException {
+        throw new InvalidConfigurationException("JSONB配置只能从文件或字节数组加载");
+    }
+
+    @Override
+    public void loadFromString(String contents) throws InvalidConfigurationException {
+        throw new InvalidConfigurationException("JSONB配置只能从文件或字节数组加载");
+    }
+
+    /**
+     * 从JSONB字节数组加载配置，替换当前内容
+     *
+     * @param bytes JSONB数据
+     * @throws InvalidConfigurationException 如果数据无法解析
+     */
+    public void loadFromBytes(byte[] bytes) throws InvalidConfigurationException {
+        clearValues();
+        if (bytes.length == 0) {
+            return;
+        }
+        try (JSONReader reader = JSONReader.ofJSONB(bytes)) {
+            read(reader);
+        } catch (JSONException e) {
+            throw new InvalidConfigurationException("JSONB配置解析失败", e);
+        }
+    }
+
+    @Override
+    public void save(File file) throws IOException {
+        Files.createDirectories(file.getAbsoluteFile().toPath().getParent());
+        Files.write(file.toPath(), saveToBytes());
+    }
+
+    /**
+     * 将配置保存为JSONB字节数组
+     *
+     * @return JSONB数据
+     */
+    public byte[] saveToBytes() {
+        return JSONB.toBytes(toMap(this));
+    }
+}
@@ -1,17 +1,31 @@
 package com.zeeyeh.nyt.config;
 
 import com.google.common.base.Preconditions;
+import com.zeeyeh.nyt.metrics.Metrics;
+import com.zeeyeh.nyt.util.ColorUtil;
+import com.zeeyeh.nyt.util.ComponentRenderer;
+import com.zeeyeh.nyt.util.LruCache;
+import net.kyori.adventure.text.Component;
+import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.Configuration;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 语言管理器类，用于处理和加载不同语言的配置文件
@@ -24,6 +38,18 @@ public class LanguageManager {
     public static final String DEFAULT_LANGUAGE_SUFFIX = "yml";
     public static final String DEFAULT_LANGUAGE_NAME = "zh_CN";
     private final Map<String, Configuration> langConfigs;
+    // 非语言文件内容的临时模板缓存
+    private static final LruCache<String, MessageTemplate> ADHOC_TEMPLATES = new LruCache<>(512);
+    // 内联语言键模板缓存，与语言无关
+    private static final LruCache<String, InlineTemplate> INLINE_TEMPLATES = new LruCache<>(512);
+    // 语言名称对应的Locale
+    private static final Map<String, Locale> LANGUAGE_LOCALES = new ConcurrentHashMap<>();
+    // 当前语言快照，查询热路径只读取这里，重新加载时整体替换
+    private volatile LanguageSnapshot snapshot = LanguageSnapshot.EMPTY;
+    // 保证多个加载线程发布快照时不互相覆盖
+    private final Object publishLock = new Object();
+    // 玩家客户端语言
+    private final Map<UUID, Locale> playerLocales = new ConcurrentHashMap<>();
 
     /**
      * 构造函数，使用默认的语言后缀和名称初始化语言管理器
@@ -52,7 +78,7 @@ public class LanguageManager {
      * @param plugin          插件实例
      */
     public LanguageManager(String currentLanguage, String suffix, Plugin plugin) {
-        this(new YamlConfiguration(), currentLanguage, suffix, plugin);
+        this(ConfigFormat.forSuffix(suffix).create(), currentLanguage, suffix, plugin);
     }
 
     /**
@@ -82,6 +108,9 @@ public class LanguageManager {
         this.suffix = suffix;
         this.currentLanguage = currentLanguage;
         this.langConfigs = langConfigs;
+        List<LanguageTable> tables = new ArrayList<>(langConfigs.size());
+        langConfigs.forEach((language, config) -> tables.add(LanguageTable.of(language, config)));
+        this.snapshot = LanguageSnapshot.EMPTY.withFallbacks(Map.of(), currentLanguage).withAll(tables);
     }
 
     /**
@@ -96,6 +125,7 @@ public class LanguageManager {
         }
         if (stream != null) {
             try {
+                Files.createDirectories(file.toPath().getParent());
                 Files.copy(stream, file.toPath());
             } catch (IOException e) {
                 throw new RuntimeException("语言文件加载失败");
@@ -107,16 +137,52 @@ public class LanguageManager {
      * 加载当前语言的配置文件
      */
     public void loadLanguage() {
-        loadLanguage(getCurrentLanguage(), getConfiguration());
+        loadLanguage(getCurrentLanguage());
     }
 
     /**
-     * 加载指定语言的配置文件
+     * 加载指定语言的配置文件，每个语言使用独立的配置文件处理器
      *
      * @param language 语言名称
      */
     public void loadLanguage(String language) {
-        loadLanguage(language, getConfiguration());
+        loadLanguage(language, newConfiguration());
+    }
+
+    /**
+     * 加载locales目录下的所有语言文件，已加载的语言常驻内存
+     */
+    public void loadLanguages() {
+        for (String language : ParallelLoader.discover(new File(getPlugin().getDataFolder(), "locales"), getSuffix())) {
+            loadLanguage(language);
+        }
+    }
+
+    /**
+     * 异步并行加载locales目录下的所有语言文件，已加载的语言不会重新解析
+     * 所有文件解析并编译完成后一次性发布，单个文件失败不影响其他文件
+     *
+     * @return 加载结果，包含语言管理器本身与每个文件的耗时
+     */
+    public CompletableFuture<LoadReport<LanguageManager>> loadLanguagesAsync() {
+        List<String> languages = ParallelLoader.discover(new File(getPlugin().getDataFolder(), "locales"), getSuffix());
+        LanguageSnapshot loaded = this.snapshot;
+        languages.removeIf(language -> loaded.getOwn(language) != null);
+        return ParallelLoader.load(languages, language -> parseLanguage(language, newConfiguration()))
+                .thenApply(report -> {
+                    publish(report.registry().values());
+                    return report.withRegistry(this);
+                });
+    }
+
+    /**
+     * 重新加载指定语言的配置文件，可在任意线程调用
+     * 解析完成后才替换快照，解析失败时保留原有数据
+     *
+     * @param language 语言名称
+     */
+    public void reloadLanguage(String language) {
+        loadLanguage(language);
     }
 
     /**
@@ -126,16 +192,54 @@ public class LanguageManager {
      * @param configurationHandler 配置文件处理器
      */
     public void loadLanguage(String language, FileConfiguration configurationHandler) {
+        publish(List.of(parseLanguage(language, configurationHandler)));
+    }
+
+    /**
+     * 解析语言文件并编译为语言表，不修改已加载的语言
+     *
+     * @param language             语言名称
+     * @param configurationHandler 配置文件处理器
+     * @return 解析结果
+     */
+    private LoadedLanguage parseLanguage(String language, FileConfiguration configurationHandler) {
         File file = new File(getPlugin().getDataFolder(), "locales/" + language + "." + getSuffix());
-        Preconditions.checkArgument(!file.exists(), new RuntimeException("语言文件 \"" + language + "." + getSuffix() + "\" 不存在"));
+        if (!file.exists()) {
+            throw new RuntimeException("语言文件 \"" + language + "." + getSuffix() + "\" 不存在");
+        }
         try {
-            getConfiguration().load(file);
-            this.langConfigs.put(language, getConfiguration());
+            configurationHandler.load(file);
         } catch (Exception e) {
-            throw new RuntimeException("语言文件加载失败");
+            throw new RuntimeException("语言文件 \"" + language + "." + getSuffix() + "\" 加载失败", e);
+        }
+        return new LoadedLanguage(configurationHandler, LanguageTable.of(language, configurationHandler));
+    }
+
+    /**
+     * 发布包含新语言表的快照
+     *
+     * @param loaded 解析完成的语言
+     */
+    private void publish(Collection<LoadedLanguage> loaded) {
+        synchronized (this.publishLock) {
+            List<LanguageTable> tables = new ArrayList<>(loaded.size());
+            for (LoadedLanguage language : loaded) {
+                this.langConfigs.put(language.table().getLanguage(), language.configuration());
+                tables.add(language.table());
+            }
+            this.snapshot = this.snapshot.withAll(tables);
         }
     }
 
+    /**
+     * 解析完成的语言
+     *
+     * @param configuration 语言配置
+     * @param table         语言表
+     */
+    private record LoadedLanguage(Configuration configuration, LanguageTable table) {
+    }
+
     /**
      * 根据给定的路径在当前语言配置中获取字符串
      *
@@ -143,9 +247,7 @@ public class LanguageManager {
      * @return 对应路径的字符串
      */
     public String translate(String path) {
-        Preconditions.checkArgument(!this.langConfigs.containsKey(getCurrentLanguage()), new RuntimeException("语言文件加载失败"));
-        Configuration currentConfiguration = this.langConfigs.get(getCurrentLanguage());
-        return parseLanguageParams(currentConfiguration.getString(path), new String[0]);
+        return translateLanguage(getCurrentLanguage(), path);
     }
 
     /**
@@ -156,9 +258,254 @@ public class LanguageManager {
      * @return 对应路径的字符串
      */
     public String translate(String path, String... params) {
-        Preconditions.checkArgument(!this.langConfigs.containsKey(getCurrentLanguage()), new RuntimeException("语言文件加载失败"));
-        Configuration currentConfiguration = this.langConfigs.get(getCurrentLanguage());
-        return parseLanguageParams(currentConfiguration.getString(path), params);
+        return translateLanguage(getCurrentLanguage(), path, params);
+    }
+
+    /**
+     * 根据给定的路径在客户端语言对应的配置中获取字符串
+     *
+     * @param locale 客户端语言
+     * @param path   配置路径
+     * @param params 参数数组
+     * @return 对应路径的字符串
+     */
+    public String translate(Locale locale, String path, String... params) {
+        return translateLanguage(resolveLanguage(locale), path, params);
+    }
+
+    /**
+     * 根据给定的路径在指定语言配置中获取字符串
+     * 指定语言未加载时使用当前语言，路径不存在时返回路径本身
+     *
+     * @param language 语言名称
+     * @param path     配置路径
+     * @param params   参数数组
+     * @return 对应路径的字符串
+     */
+    public String translateLanguage(String language, String path, String... params) {
+        long start = Metrics.start();
+        MessageTemplate template = findTemplate(language, path);
+        String text = template == null ? path : template.render(params);
+        Metrics.TRANSLATE.stop(start);
+        return text;
+    }
+
+    /**
+     * 根据给定的路径在指定语言配置中获取字符串，使用命名参数替换占位符
+     *
+     * @param language 语言名称
+     * @param path     配置路径
+     * @param values   命名参数
+     * @return 对应路径的字符串
+     */
+    public String translateLanguage(String language, String path, Map<String, ?> values) {
+        long start = Metrics.start();
+        MessageTemplate template = findTemplate(language, path);
+        String text = template == null ? path : template.render(values);
+        Metrics.TRANSLATE.stop(start);
+        return text;
+    }
+
+    /**
+     * 根据给定的路径在指定语言配置中获取字符串，使用类型化参数替换占位符
+     * 路径不存在或模板不包含某个参数时，该参数不会被计算
+     *
+     * @param language 语言名称
+     * @param path     配置路径
+     * @param args     参数
+     * @return 对应路径的字符串
+     */
+    public String translateLanguage(String language, String path, Args args) {
+        long start = Metrics.start();
+        MessageTemplate template = findTemplate(language, path);
+        String text = template == null ? path : template.render(args, localeOf(language));
+        Metrics.TRANSLATE.stop(start);
+        return text;
+    }
+
+    /**
+     * 获取语言名称对应的Locale，用于格式化数字与时长
+     *
+     * @param language 语言名称，例如 zh_CN
+     * @return Locale
+     */
+    public static Locale localeOf(String language) {
+        return LANGUAGE_LOCALES.computeIfAbsent(language, key -> Locale.forLanguageTag(key.replace('_', '-')));
+    }
+
+    /**
+     * 根据给定的路径在指定语言配置中获取字符串，并转换为Adventure组件
+     * 结果按语言、路径与参数缓存在当前快照中，语言文件重新加载后失效
+     *
+     * @param language 语言名称
+     * @param path     配置路径
+     * @param params   参数数组
+     * @return 组件
+     */
+    public Component translateComponent(String language, String path, String... params) {
+        LanguageSnapshot current = this.snapshot;
+        return current.components().get(new LanguageSnapshot.ComponentKey(language, path, Arrays.asList(params)),
+                key -> ComponentRenderer.render(translateLanguage(language, path, params)));
+    }
+
+    /**
+     * 展开消息中 (key) 形式的内联语言键并转换颜色代码
+     * 语言文件中不存在的键视为普通文本，原样保留括号，也不记录为缺失键，例如 "在线玩家 (3)" 不会被改写
+     * 结果按语言缓存在当前快照中，语言文件重新加载后失效
+     *
+     * @param language 语言名称
+     * @param message  消息内容
+     * @return 展开后的文本
+     */
+    public String renderInline(String language, String message) {
+        LanguageSnapshot current = this.snapshot;
+        return current.inlines().get(new LanguageSnapshot.InlineKey(language, message), key -> {
+            InlineTemplate template = INLINE_TEMPLATES.get(message, InlineTemplate::compile);
+            LanguageTable table = current.get(language);
+            if (table == null) {
+                table = current.get(getCurrentLanguage());
+            }
+            LanguageTable resolved = table;
+            return ColorUtil.translate(template.expand(path -> {
+                MessageTemplate text = resolved == null ? null : resolved.get(path);
+                return text == null ? null : text.render();
+            }));
+        });
+    }
+
+    private MessageTemplate findTemplate(String language, String path) {
+        LanguageSnapshot current = this.snapshot;
+        LanguageTable table = current.get(language);
+        if (table == null) {
+            table = current.get(getCurrentLanguage());
+        }
+        Preconditions.checkState(table != null, "语言文件加载失败");
+        MessageTemplate template = table.get(path);
+        if (template == null) {
+            current.recordMissing(table.getLanguage(), path);
+        }
+        return template;
+    }
+
+    /**
+     * 设置语言回退链，例如 zh_TW 依次回退到 zh_CN 与 en_US，所有回退链最终回退到当前语言
+     * 回退链在发布快照时展开为合并后的语言表，查询时只需一次查找
+     *
+     * @param fallbacks 语言名称到回退语言列表的映射
+     */
+    public void setFallbacks(Map<String, List<String>> fallbacks) {
+        synchronized (this.publishLock) {
+            this.snapshot = this.snapshot.withFallbacks(fallbacks, getCurrentLanguage());
+        }
+    }
+
+    /**
+     * 获取每种语言需要从回退语言获取的键数量
+     *
+     * @return 语言名称到回退键数量的映射
+     */
+    public Map<String, Integer> getFallbackReport() {
+        return this.snapshot.fallbackReport();
+    }
+
+    /**
+     * 获取回退后仍然缺失的键与查询次数，语言文件重新加载后清空
+     *
+     * @return 语言名称与键到查询次数的映射
+     */
+    public Map<String, Long> getMissingKeys() {
+        return this.snapshot.missingKeys();
+    }
+
+    /**
+     * 将客户端语言解析为已加载的语言名称
+     * 依次匹配完整语言标识（如zh_CN）和语言代码（如zh），都不匹配时返回当前语言
+     *
+     * @param locale 客户端语言
+     * @return 语言名称
+     */
+    public String resolveLanguage(Locale locale) {
+        return resolveLanguage(this.snapshot, locale);
+    }
+
+    private String resolveLanguage(LanguageSnapshot current, Locale locale) {
+        if (locale == null) {
+            return getCurrentLanguage();
+        }
+        String tag = locale.toString();
+        if (current.contains(tag)) {
+            return tag;
+        }
+        String prefix = locale.getLanguage() + "_";
+        String fallback = null;
+        for (String language : current.languages()) {
+            if (language.equalsIgnoreCase(tag)) {
+                return language;
+            }
+            if (fallback == null && (language.equalsIgnoreCase(locale.getLanguage())
+                    || language.toLowerCase(Locale.ROOT).startsWith(prefix))) {
+                fallback = language;
+            }
+        }
+        return fallback != null ? fallback : getCurrentLanguage();
+    }
+
+    /**
+     * 获取消息接收者使用的语言名称
+     * 玩家使用客户端语言，其他接收者使用当前语言
+     *
+     * @param sender 消息接收者
+     * @return 语言名称
+     */
+    public String getLanguage(CommandSender sender) {
+        if (!(sender instanceof Player player)) {
+            return getCurrentLanguage();
+        }
+        // 只读取缓存，写入只由进入与切换语言监听完成，避免退出后的玩家重新写入缓存
+        Locale locale = this.playerLocales.get(player.getUniqueId());
+        if (locale == null) {
+            locale = player.locale();
+        }
+        LanguageSnapshot current = this.snapshot;
+        return current.resolvedLocales().computeIfAbsent(locale, key -> resolveLanguage(current, key));
+    }
+
+    /**
+     * 更新玩家的客户端语言，在玩家进入服务器和切换语言时调用
+     *
+     * @param playerId 玩家UUID
+     * @param locale   客户端语言
+     */
+    public void updatePlayerLocale(UUID playerId, Locale locale) {
+        this.playerLocales.put(playerId, locale);
+    }
+
+    /**
+     * 移除玩家的客户端语言记录，在玩家离开服务器时调用
+     *
+     * @param playerId 玩家UUID
+     */
+    public void removePlayer(UUID playerId) {
+        this.playerLocales.remove(playerId);
+    }
+
+    /**
+     * 获取已加载的语言表
+     *
+     * @param language 语言名称
+     * @return 语言表，未加载时返回null
+     */
+    public LanguageTable getLanguageTable(String language) {
+        return this.snapshot.get(language);
+    }
+
+    /**
+     * 获取当前语言快照
+     *
+     * @return 语言快照
+     */
+    public LanguageSnapshot getSnapshot() {
+        return this.snapshot;
     }
 
     /**
@@ -169,18 +516,29 @@ public class LanguageManager {
      * @return 替换参数后的字符串
      */
     public String parseLanguageParams(String content, String... params) {
-        Preconditions.checkNotNull(content, new RuntimeException("语言内容不能为空"));
+        Preconditions.checkNotNull(content, "语言内容不能为空");
         if (params == null || params.length == 0) {
-            throw new IllegalArgumentException("值不能为空");
-        }
-        StringBuilder builder = new StringBuilder(content);
-        for (int i = 0; i < params.length; i++) {
-            builder.replace(
-                    builder.indexOf("{" + i + "}"),
-                    builder.indexOf("{" + i + "}") + ("{" + i + " }").length(),
-                    params[i]);
+            return content;
         }
-        return builder.toString();
+        return ADHOC_TEMPLATES.get(content, MessageTemplate::compile).render(params);
+    }
+
+    /**
+     * 获取非语言文件内容的临时模板缓存
+     *
+     * @return 模板缓存
+     */
+    public static LruCache<String, MessageTemplate> getAdhocTemplateCache() {
+        return ADHOC_TEMPLATES;
+    }
+
+    /**
+     * 获取内联语言键模板缓存
+     *
+     * @return 模板缓存
+     */
+    public static LruCache<String, InlineTemplate> getInlineTemplateCache() {
+        return INLINE_TEMPLATES;
     }
 
     /**
@@ -219,6 +577,19 @@ public class LanguageManager {
         return plugin;
     }
 
+    /**
+     * 创建与当前配置文件处理器同类型的新实例，避免多个语言共享同一份数据
+     *
+     * @return 新的配置文件处理器
+     */
+    private FileConfiguration newConfiguration() {
+        try {
+            return getConfiguration().getClass().getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            return ConfigFormat.forSuffix(getSuffix()).create();
+        }
+    }
+
     /**
      * 设置配置文件
      *
@@ -0,0 +1,287 @@
+package com.zeeyeh.nyt.config;
+
+import com.zeeyeh.nyt.metrics.Metrics;
+import com.zeeyeh.nyt.util.LruCache;
+import net.kyori.adventure.text.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author LeonKeiran
+ * @description 语言快照，保存某一时刻所有已加载的语言表，创建后不再修改，重新加载时整体替换
+ * 创建快照时按回退链把每种语言展开为合并后的语言表，查询时无论回退链多长都只需一次查找
+ * @date 2026/10/17 14:40
+ */
+public final class LanguageSnapshot {
+    /**
+     * 未加载任何语言时的空快照
+     */
+    public static final LanguageSnapshot EMPTY = new LanguageSnapshot(0L, Map.of(), Map.of(), null);
+    // 记录的缺失键数量上限
+    private static final int MAX_MISSING_KEYS = 256;
+
+    private final long version;
+    // 语言文件中的原始语言表
+    private final Map<String, LanguageTable> tables;
+    // 配置的回退链，不包含语言本身与默认语言
+    private final Map<String, List<String>> fallbacks;
+    // 回退链末尾的默认语言
+    private final String defaultLanguage;
+    // 按回退链合并后的语言表，查询只读取这里
+    private final Map<String, LanguageTable> merged;
+    // 合并后仍然缺失的键与查询次数，有界，只对当前快照有效
+    private final LruCache<MissingKey, LongAdder> missingKeys = new LruCache<>(MAX_MISSING_KEYS);
+    // 客户端语言到语言名称的解析结果，只对当前快照有效
+    private final Map<Locale, String> resolvedLocales = new ConcurrentHashMap<>();
+    // 翻译结果对应的组件，只对当前快照有效，重新加载后随快照一起丢弃
+    private final LruCache<ComponentKey, Component> components = new LruCache<>(2048);
+    // 展开内联语言键并转换颜色后的消息，只对当前快照有效
+    private final LruCache<InlineKey, String> inlines = new LruCache<>(1024);
+
+    private LanguageSnapshot(long version, Map<String, LanguageTable> tables, Map<String, List<String>> fallbacks, String defaultLanguage) {
+        this.version = version;
+        this.tables = Map.copyOf(tables);
+        this.fallbacks = Map.copyOf(fallbacks);
+        this.defaultLanguage = defaultLanguage;
+        this.merged = Map.copyOf(merge());
+    }
+
+    /**
+     * 缺失键
+     *
+     * @param language 语言名称
+     * @param key      语言键
+     */
+    record MissingKey(String language, String key) {
+    }
+
+    /**
+     * 组件缓存键
+     *
+     * @param language 语言名称
+     * @param key      语言键
+     * @param params   参数
+     */
+    record ComponentKey(String language, String key, List<String> params) {
+    }
+
+    /**
+     * 内联消息缓存键
+     *
+     * @param language 语言名称
+     * @param message  原始消息
+     */
+    record InlineKey(String language, String message) {
+    }
+
+    /**
+     * 创建包含新语言表的快照，同名语言表会被替换
+     *
+     * @param table 语言表
+     * @return 新快照
+     */
+    public LanguageSnapshot with(LanguageTable table) {
+        return withAll(List.of(table));
+    }
+
+    /**
+     * 创建包含多个新语言表的快照，同名语言表会被替换，回退链只合并一次
+     * 一次加载多种语言时应使用本方法，逐个调用 {@link #with(LanguageTable)} 会为每种语言重复合并所有语言表
+     *
+     * @param tables 语言表
+     * @return 新快照
+     */
+    public LanguageSnapshot withAll(Collection<LanguageTable> tables) {
+        Map<String, LanguageTable> copy = new HashMap<>(this.tables);
+        for (LanguageTable table : tables) {
+            copy.put(table.getLanguage(), table);
+        }
+        return new LanguageSnapshot(version + 1, copy, fallbacks, defaultLanguage);
+    }
+
+    /**
+     * 创建使用新回退链的快照
+     * 回退链可以传递，例如 zh_TW 回退到 zh_CN、zh_CN 回退到 en_US 时，zh_TW 依次使用 zh_CN 与 en_US
+     * 所有回退链最终都回退到默认语言
+     *
+     * @param fallbacks       语言名称到回退语言列表的映射
+     * @param defaultLanguage 默认语言名称
+     * @return 新快照
+     */
+    public LanguageSnapshot withFallbacks(Map<String, List<String>> fallbacks, String defaultLanguage) {
+        Map<String, List<String>> copy = new HashMap<>();
+        fallbacks.forEach((language, chain) -> copy.put(language, List.copyOf(chain)));
+        return new LanguageSnapshot(version + 1, tables, copy, defaultLanguage);
+    }
+
+    /**
+     * 获取按回退链合并后的语言表
+     *
+     * @param language 语言名称
+     * @return 语言表，语言及其回退链都未加载时返回null
+     */
+    public LanguageTable get(String language) {
+        return merged.get(language);
+    }
+
+    /**
+     * 获取语言文件中的原始语言表，不包含回退语言的内容
+     *
+     * @param language 语言名称
+     * @return 语言表，未加载时返回null
+     */
+    public LanguageTable getOwn(String language) {
+        return tables.get(language);
+    }
+
+    /**
+     * 判断语言是否可用，语言本身或其回退链中任一语言已加载即可用
+     *
+     * @param language 语言名称
+     * @return 是否可用
+     */
+    public boolean contains(String language) {
+        return merged.containsKey(language);
+    }
+
+    /**
+     * 获取所有可用的语言名称
+     *
+     * @return 语言名称集合
+     */
+    public Set<String> languages() {
+        return merged.keySet();
+    }
+
+    /**
+     * 获取语言的完整回退链，第一个元素为语言本身，最后一个元素为默认语言
+     *
+     * @param language 语言名称
+     * @return 回退链
+     */
+    public List<String> chain(String language) {
+        Set<String> chain = new LinkedHashSet<>();
+        collectChain(language, chain);
+        if (defaultLanguage != null) {
+            chain.add(defaultLanguage);
+        }
+        return List.copyOf(chain);
+    }
+
+    /**
+     * 获取每种语言需要从回退语言获取的键数量，语言文件完整时不包含该语言
+     *
+     * @return 语言名称到回退键数量的映射
+     */
+    public Map<String, Integer> fallbackReport() {
+        Map<String, Integer> report = new LinkedHashMap<>();
+        for (Map.Entry<String, LanguageTable> entry : merged.entrySet()) {
+            LanguageTable own = tables.get(entry.getKey());
+            int count = entry.getValue().keys().size() - (own == null ? 0 : own.keys().size());
+            if (count > 0) {
+                report.put(entry.getKey(), count);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * 获取合并后仍然缺失的键与查询次数，只保留最近的部分记录
+     *
+     * @return 语言名称与键到查询次数的映射
+     */
+    public Map<String, Long> missingKeys() {
+        Map<String, Long> report = new LinkedHashMap<>();
+        missingKeys.asMap().forEach((key, count) -> report.put(key.language() + ":" + key.key(), count.sum()));
+        return report;
+    }
+
+    /**
+     * 记录一次缺失键查询
+     *
+     * @param language 语言名称
+     * @param key      语言键
+     */
+    void recordMissing(String language, String key) {
+        missingKeys.get(new MissingKey(language, key), ignored -> new LongAdder()).increment();
+        Metrics.missingKey(language, key);
+    }
+
+    /**
+     * 获取快照版本，每次替换语言表递增
+     *
+     * @return 快照版本
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取客户端语言解析缓存
+     *
+     * @return 解析缓存
+     */
+    Map<Locale, String> resolvedLocales() {
+        return resolvedLocales;
+    }
+
+    /**
+     * 获取翻译组件缓存
+     *
+     * @return 组件缓存
+     */
+    LruCache<ComponentKey, Component> components() {
+        return components;
+    }
+
+    /**
+     * 获取内联消息缓存
+     *
+     * @return 内联消息缓存
+     */
+    LruCache<InlineKey, String> inlines() {
+        return inlines;
+    }
+
+    private Map<String, LanguageTable> merge() {
+        Set<String> languages = new HashSet<>(tables.keySet());
+        languages.addAll(fallbacks.keySet());
+        Map<String, LanguageTable> result = new HashMap<>();
+        for (String language : languages) {
+            List<LanguageTable> chain = new ArrayList<>();
+            for (String name : chain(language)) {
+                LanguageTable table = tables.get(name);
+                if (table != null) {
+                    chain.add(table);
+                }
+            }
+            if (chain.isEmpty()) {
+                continue;
+            }
+            // 没有可回退的内容时直接使用原始语言表
+            boolean complete = chain.size() == 1 && chain.get(0).getLanguage().equals(language);
+            result.put(language, complete ? chain.get(0) : LanguageTable.merge(language, chain));
+        }
+        return result;
+    }
+
+    private void collectChain(String language, Set<String> chain) {
+        if (!chain.add(language)) {
+            return;
+        }
+        for (String fallback : fallbacks.getOrDefault(language, List.of())) {
+            collectChain(fallback, chain);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.zeeyeh.nyt.config;
+
+import org.bukkit.configuration.Configuration;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author LeonKeiran
+ * @description 语言表，加载时将语言文件展开为扁平的键值表并编译为消息模板，查询时不再访问配置树
+ * @date 2026/10/17 13:10
+ */
+public final class LanguageTable {
+    private final String language;
+    private final Map<String, MessageTemplate> entries;
+
+    private LanguageTable(String language, Map<String, MessageTemplate> entries) {
+        this.language = language;
+        this.entries = Map.copyOf(entries);
+    }
+
+    /**
+     * 从语言配置创建语言表
+     *
+     * @param language      语言名称
+     * @param configuration 语言配置
+     * @return 语言表
+     */
+    public static LanguageTable of(String language, Configuration configuration) {
+        Map<String, MessageTemplate> entries = new HashMap<>();
+        for (String key : configuration.getKeys(true)) {
+            if (configuration.isString(key)) {
+                entries.put(key, MessageTemplate.compile(configuration.getString(key)));
+            }
+        }
+        return new LanguageTable(language, entries);
+    }
+
+    /**
+     * 按回退链合并语言表，靠前的语言表优先
+     *
+     * @param language 合并后的语言名称
+     * @param chain    回退链上的语言表
+     * @return 合并后的语言表
+     */
+    public static LanguageTable merge(String language, List<LanguageTable> chain) {
+        Map<String, MessageTemplate> entries = new HashMap<>();
+        for (LanguageTable table : chain) {
+            table.entries.forEach(entries::putIfAbsent);
+        }
+        return new LanguageTable(language, entries);
+    }
+
+    /**
+     * 获取语言键对应的消息模板
+     *
+     * @param key 语言键
+     * @return 消息模板，不存在时返回null
+     */
+    public MessageTemplate get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * 获取所有语言键
+     *
+     * @return 语言键集合
+     */
+    public Set<String> keys() {
+        return entries.keySet();
+    }
+
+    /**
+     * 获取语言名称
+     *
+     * @return 语言名称
+     */
+    public String getLanguage() {
+        return language;
+    }
+}
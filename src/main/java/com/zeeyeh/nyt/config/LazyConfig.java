@@ -0,0 +1,363 @@
+package com.zeeyeh.nyt.config;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author LeonKeiran
+ * @description 按需加载的YAML配置文件，适合体积很大且大部分内容很少访问的数据文件
+ * 打开时只扫描一遍文件，记录每个顶层键所在的字节区间；配置节在首次访问时才单独解析，
+ * 已解析的配置节按最近访问顺序保留，超出内存预算时淘汰最久未访问的配置节
+ * 锚点与别名不能跨顶层配置节引用
+ * @date 2026/10/17 17:20
+ */
+public final class LazyConfig {
+    // 解析后的配置树相对于原始文本的膨胀系数，用于估算内存占用
+    private static final int ESTIMATED_EXPANSION = 8;
+    // 顶层键所在行的最大读取长度
+    private static final int MAX_KEY_LINE = 1024;
+    private final File file;
+    private final String name;
+    private final long memoryBudget;
+    // 已解析的配置节，按访问顺序排列
+    private final LinkedHashMap<String, Loaded> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile Index index;
+    private long loadedBytes;
+
+    private LazyConfig(File file, String name, long memoryBudget) {
+        this.file = file;
+        this.name = name;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * 顶层键所在的字节区间
+     *
+     * @param offset 起始偏移量
+     * @param length 字节长度
+     */
+    private record Range(long offset, int length) {
+    }
+
+    /**
+     * 文件索引
+     *
+     * @param ranges       顶层键到字节区间的映射
+     * @param size         建立索引时的文件大小
+     * @param lastModified 建立索引时的修改时间
+     */
+    private record Index(Map<String, Range> ranges, long size, long lastModified) {
+    }
+
+    /**
+     * 已解析的顶层值
+     *
+     * @param value  顶层值，配置节为ConfigurationSection
+     * @param weight 估算的内存占用
+     */
+    private record Loaded(Object value, long weight) {
+    }
+
+    /**
+     * 打开配置文件并建立顶层键索引
+     *
+     * @param file         YAML配置文件
+     * @param memoryBudget 已解析配置节的内存预算，单位字节
+     * @return 按需加载的配置文件
+     * @throws IOException 如果文件无法读取
+     */
+    public static LazyConfig open(File file, long memoryBudget) throws IOException {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("内存预算必须大于0");
+        }
+        LazyConfig config = new LazyConfig(file, file.getName(), memoryBudget);
+        config.reindex();
+        return config;
+    }
+
+    /**
+     * 重新建立索引并丢弃所有已解析的配置节，在文件被修改后调用
+     *
+     * @throws IOException 如果文件无法读取
+     */
+    public void reindex() throws IOException {
+        Index next = scan();
+        synchronized (this.loaded) {
+            this.index = next;
+            this.loaded.clear();
+            this.loadedBytes = 0L;
+        }
+    }
+
+    /**
+     * 获取所有顶层键
+     *
+     * @return 顶层键集合
+     */
+    public Set<String> getKeys() {
+        return this.index.ranges().keySet();
+    }
+
+    /**
+     * 判断顶层键是否存在
+     *
+     * @param key 顶层键
+     * @return 是否存在
+     */
+    public boolean contains(String key) {
+        return this.index.ranges().containsKey(key);
+    }
+
+    /**
+     * 获取指定路径的值，路径的第一段为顶层键，所在配置节未解析时先解析
+     *
+     * @param path 配置路径
+     * @return 值，不存在时返回null
+     */
+    public Object get(String path) {
+        int separator = path.indexOf('.');
+        Object value = load(separator < 0 ? path : path.substring(0, separator));
+        if (separator < 0 || value == null) {
+            return value;
+        }
+        return value instanceof ConfigurationSection section ? section.get(path.substring(separator + 1)) : null;
+    }
+
+    /**
+     * 获取顶层配置节，未解析时先解析
+     *
+     * @param key 顶层键
+     * @return 配置节，不存在或不是配置节时返回null
+     */
+    public ConfigurationSection getSection(String key) {
+        return load(key) instanceof ConfigurationSection section ? section : null;
+    }
+
+    /**
+     * 丢弃所有已解析的配置节
+     */
+    public void evictAll() {
+        synchronized (this.loaded) {
+            this.loaded.clear();
+            this.loadedBytes = 0L;
+        }
+    }
+
+    /**
+     * 获取已解析配置节的估算内存占用
+     *
+     * @return 估算的内存占用，单位字节
+     */
+    public long getLoadedBytes() {
+        synchronized (this.loaded) {
+            return this.loadedBytes;
+        }
+    }
+
+    /**
+     * 获取已解析的配置节数量
+     *
+     * @return 配置节数量
+     */
+    public int getLoadedCount() {
+        synchronized (this.loaded) {
+            return this.loaded.size();
+        }
+    }
+
+    /**
+     * 获取配置文件
+     *
+     * @return 配置文件
+     */
+    public File getFile() {
+        return file;
+    }
+
+    private Object load(String key) {
+        Index current = this.index;
+        synchronized (this.loaded) {
+            Loaded cached = this.loaded.get(key);
+            if (cached != null) {
+                return cached.value();
+            }
+        }
+        Range range = current.ranges().get(key);
+        if (range == null) {
+            return null;
+        }
+        if (isStale(current)) {
+            // 文件在建立索引后被修改，原有偏移量已失效
+            try {
+                reindex();
+            } catch (IOException e) {
+                throw new UncheckedIOException("配置文件 \"" + this.name + "\" 重新建立索引失败", e);
+            }
+            return load(key);
+        }
+        // 解析在锁外执行，并发访问同一配置节时可能重复解析，但结果一致
+        Object value = parse(key, range);
+        Loaded entry = new Loaded(value, (long) range.length() * ESTIMATED_EXPANSION);
+        synchronized (this.loaded) {
+            if (this.index != current) {
+                return value;
+            }
+            Loaded previous = this.loaded.put(key, entry);
+            this.loadedBytes += entry.weight() - (previous == null ? 0L : previous.weight());
+            evict();
+        }
+        return value;
+    }
+
+    private boolean isStale(Index current) {
+        try {
+            return Files.size(this.file.toPath()) != current.size()
+                    || Files.getLastModifiedTime(this.file.toPath()).toMillis() != current.lastModified();
+        } catch (IOException e) {
+            throw new UncheckedIOException("配置文件 \"" + this.name + "\" 读取失败", e);
+        }
+    }
+
+    private void evict() {
+        Iterator<Loaded> iterator = this.loaded.values().iterator();
+        // 至少保留最近访问的配置节，避免单个配置节超出预算时反复解析
+        while (this.loadedBytes > this.memoryBudget && this.loaded.size() > 1 && iterator.hasNext()) {
+            this.loadedBytes -= iterator.next().weight();
+            iterator.remove();
+        }
+    }
+
+    private Object parse(String key, Range range) {
+        ByteBuffer buffer = ByteBuffer.allocate(range.length());
+        try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, range.offset() + buffer.position()) < 0) {
+                    throw new IOException("配置文件 \"" + this.name + "\" 在建立索引后被截断");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("配置文件 \"" + this.name + "\" 读取失败", e);
+        }
+        YamlConfiguration configuration = new YamlConfiguration();
+        try {
+            configuration.loadFromString(new String(buffer.array(), StandardCharsets.UTF_8));
+        } catch (InvalidConfigurationException e) {
+            throw new RuntimeException("配置文件 \"" + this.name + "\" 的配置节 \"" + key + "\" 解析失败", e);
+        }
+        return configuration.get(key);
+    }
+
+    /**
+     * 扫描文件，记录每个顶层键所在行的偏移量，相邻两个顶层键之间的内容属于前一个键
+     */
+    private Index scan() throws IOException {
+        long size = Files.size(this.file.toPath());
+        long lastModified = Files.getLastModifiedTime(this.file.toPath()).toMillis();
+        List<String> keys = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        try (InputStream input = Files.newInputStream(this.file.toPath())) {
+            byte[] buffer = new byte[1 << 16];
+            long offset = 0L;
+            long lineStart = 0L;
+            boolean candidate = false;
+            boolean atLineStart = true;
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                int i = 0;
+                // 跳过UTF-8 BOM
+                if (offset == 0L && read >= 3 && (buffer[0] & 0xFF) == 0xEF && (buffer[1] & 0xFF) == 0xBB && (buffer[2] & 0xFF) == 0xBF) {
+                    i = 3;
+                }
+                for (; i < read; i++) {
+                    byte b = buffer[i];
+                    if (atLineStart) {
+                        lineStart = offset + i;
+                        candidate = isKeyStart(b);
+                        line.reset();
+                        atLineStart = false;
+                    }
+                    if (b == '\n') {
+                        if (candidate) {
+                            addKey(line, lineStart, keys, offsets);
+                        }
+                        atLineStart = true;
+                    } else if (candidate && line.size() < MAX_KEY_LINE) {
+                        line.write(b);
+                    }
+                }
+                offset += read;
+            }
+            if (candidate && !atLineStart) {
+                addKey(line, lineStart, keys, offsets);
+            }
+        }
+        Map<String, Range> ranges = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            long start = offsets.get(i);
+            long end = i + 1 < offsets.size() ? offsets.get(i + 1) : size;
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("配置文件 \"" + this.name + "\" 的配置节 \"" + keys.get(i) + "\" 过大");
+            }
+            // 重复的顶层键以最后一次出现为准，与YAML解析结果一致
+            ranges.remove(keys.get(i));
+            ranges.put(keys.get(i), new Range(start, (int) (end - start)));
+        }
+        return new Index(Collections.unmodifiableMap(ranges), size, lastModified);
+    }
+
+    private static boolean isKeyStart(byte b) {
+        // 缩进、注释、空行、文档标记与顶层列表项都不是顶层键
+        return b != ' ' && b != '\t' && b != '#' && b != '\r' && b != '\n' && b != '-' && b != '%' && b != '.';
+    }
+
+    private static void addKey(ByteArrayOutputStream line, long lineStart, List<String> keys, List<Long> offsets) {
+        String text = line.toString(StandardCharsets.UTF_8);
+        int colon = findColon(text);
+        if (colon <= 0) {
+            return;
+        }
+        String key = text.substring(0, colon).trim();
+        if (key.length() >= 2 && (key.charAt(0) == '"' || key.charAt(0) == '\'') && key.charAt(key.length() - 1) == key.charAt(0)) {
+            key = key.substring(1, key.length() - 1);
+        }
+        keys.add(key);
+        offsets.add(lineStart);
+    }
+
+    private static int findColon(String text) {
+        char quote = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == ':' && (i + 1 == text.length() || text.charAt(i + 1) == ' ' || text.charAt(i + 1) == '\r')) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,49 @@
+package com.zeeyeh.nyt.config;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * @author LeonKeiran
+ * @description 批量加载结果，包含加载完成的注册表、每个文件的耗时与失败原因
+ * @date 2026/10/17 15:40
+ */
+public record LoadReport<T>(T registry, Map<String, Duration> timings, Map<String, Throwable> failures, Duration elapsed) {
+
+    /**
+     * 替换结果中的注册表
+     *
+     * @param registry 注册表
+     * @return 新的加载结果
+     */
+    public <R> LoadReport<R> withRegistry(R registry) {
+        return new LoadReport<>(registry, timings, failures, elapsed);
+    }
+
+    /**
+     * 判断是否所有文件都加载成功
+     *
+     * @return 是否全部成功
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * 生成加载摘要，包含总耗时与耗时最长的文件
+     *
+     * @param limit 列出的文件数量
+     * @return 加载摘要
+     */
+    public String summary(int limit) {
+        String slowest = timings.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> entry.getKey() + "(" + entry.getValue().toMillis() + "ms)")
+                .collect(Collectors.joining(", "));
+        return "加载 " + timings.size() + " 个文件，失败 " + failures.size() + " 个，总耗时 "
+                + elapsed.toMillis() + "ms" + (slowest.isEmpty() ? "" : "，最慢: " + slowest);
+    }
+}
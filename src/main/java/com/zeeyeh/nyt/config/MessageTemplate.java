@@ -0,0 +1,219 @@
+package com.zeeyeh.nyt.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * @author LeonKeiran
+ * @description 预编译消息模板，支持序号占位符 {0} 与命名占位符 {player}，渲染时单次写入预分配的缓冲区
+ * @date 2026/10/17 14:05
+ */
+public final class MessageTemplate {
+    private final String source;
+    // 文本片段，数量比占位符多一个
+    private final String[] literals;
+    // 占位符序号，命名占位符为-1
+    private final int[] indexes;
+    // 占位符名称，序号占位符为序号的字符串形式
+    private final String[] names;
+    private final int literalLength;
+
+    private MessageTemplate(String source, String[] literals, int[] indexes, String[] names) {
+        this.source = source;
+        this.literals = literals;
+        this.indexes = indexes;
+        this.names = names;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 编译消息模板
+     *
+     * @param source 消息内容
+     * @return 消息模板
+     */
+    public static MessageTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int literalStart = 0;
+        int i = source.indexOf('{');
+        while (i >= 0) {
+            int end = source.indexOf('}', i + 1);
+            if (end < 0) {
+                break;
+            }
+            String name = source.substring(i + 1, end);
+            int index = parseIndex(name);
+            if (index >= 0 || isName(name)) {
+                literals.add(source.substring(literalStart, i));
+                indexes.add(index);
+                names.add(name);
+                literalStart = end + 1;
+                i = source.indexOf('{', literalStart);
+            } else {
+                i = source.indexOf('{', i + 1);
+            }
+        }
+        literals.add(source.substring(literalStart));
+        int[] indexArray = new int[indexes.size()];
+        for (int j = 0; j < indexArray.length; j++) {
+            indexArray[j] = indexes.get(j);
+        }
+        return new MessageTemplate(source, literals.toArray(new String[0]), indexArray, names.toArray(new String[0]));
+    }
+
+    /**
+     * 使用序号参数渲染模板，缺少的参数保留原占位符
+     *
+     * @param params 参数数组
+     * @return 渲染后的文本
+     */
+    public String render(String... params) {
+        if (indexes.length == 0 || params == null || params.length == 0) {
+            return source;
+        }
+        int length = literalLength;
+        for (int index : indexes) {
+            if (index >= 0 && index < params.length && params[index] != null) {
+                length += params[index].length();
+            } else {
+                length += 16;
+            }
+        }
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < indexes.length; i++) {
+            builder.append(literals[i]);
+            int index = indexes[i];
+            if (index >= 0 && index < params.length && params[index] != null) {
+                builder.append(params[index]);
+            } else {
+                appendPlaceholder(builder, i);
+            }
+        }
+        return builder.append(literals[indexes.length]).toString();
+    }
+
+    /**
+     * 使用命名参数渲染模板，序号占位符使用序号字符串作为名称，缺少的参数保留原占位符
+     *
+     * @param values 参数映射
+     * @return 渲染后的文本
+     */
+    public String render(Map<String, ?> values) {
+        if (indexes.length == 0 || values == null || values.isEmpty()) {
+            return source;
+        }
+        StringBuilder builder = new StringBuilder(literalLength + indexes.length * 16);
+        for (int i = 0; i < indexes.length; i++) {
+            builder.append(literals[i]);
+            Object value = values.get(names[i]);
+            if (value != null) {
+                builder.append(value);
+            } else {
+                appendPlaceholder(builder, i);
+            }
+        }
+        return builder.append(literals[indexes.length]).toString();
+    }
+
+    /**
+     * 使用类型化参数渲染模板，只计算和格式化模板中实际出现的参数，缺少的参数保留原占位符
+     *
+     * @param args   参数
+     * @param locale 格式化数字与时长使用的语言
+     * @return 渲染后的文本
+     */
+    public String render(Args args, Locale locale) {
+        if (indexes.length == 0 || args == null || args.isEmpty()) {
+            return source;
+        }
+        StringBuilder builder = new StringBuilder(literalLength + indexes.length * 16);
+        for (int i = 0; i < indexes.length; i++) {
+            builder.append(literals[i]);
+            String value = args.resolve(names[i], locale);
+            if (value != null) {
+                builder.append(value);
+            } else {
+                appendPlaceholder(builder, i);
+            }
+        }
+        return builder.append(literals[indexes.length]).toString();
+    }
+
+    /**
+     * 判断模板中是否包含指定名称的占位符
+     *
+     * @param name 占位符名称
+     * @return 是否包含
+     */
+    public boolean hasPlaceholder(String name) {
+        for (String placeholder : names) {
+            if (placeholder.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取占位符数量
+     *
+     * @return 占位符数量
+     */
+    public int getPlaceholderCount() {
+        return indexes.length;
+    }
+
+    /**
+     * 获取原始消息内容
+     *
+     * @return 原始消息内容
+     */
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private void appendPlaceholder(StringBuilder builder, int slot) {
+        builder.append('{').append(names[slot]).append('}');
+    }
+
+    private static int parseIndex(String name) {
+        if (name.isEmpty() || name.length() > 3) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    private static boolean isName(String name) {
+        if (name.isEmpty() || !(Character.isLetter(name.charAt(0)) || name.charAt(0) == '_')) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
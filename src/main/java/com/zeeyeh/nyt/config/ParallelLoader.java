@@ -0,0 +1,78 @@
+package com.zeeyeh.nyt.config;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * @author LeonKeiran
+ * @description 并行文件加载器，每个文件在独立的虚拟线程中解析
+ * @date 2026/10/17 15:45
+ */
+final class ParallelLoader {
+
+    private ParallelLoader() {
+    }
+
+    /**
+     * 查找目录中指定后缀的文件
+     *
+     * @param directory 目录
+     * @param suffix    文件后缀，不包含点
+     * @return 不包含后缀的文件名列表
+     */
+    static List<String> discover(File directory, String suffix) {
+        List<String> names = new ArrayList<>();
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return names;
+        }
+        String extension = "." + suffix;
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isFile() && name.endsWith(extension)) {
+                names.add(name.substring(0, name.length() - extension.length()));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 并行解析文件，单个文件失败不影响其他文件
+     *
+     * @param names  不包含后缀的文件名
+     * @param parser 解析函数
+     * @return 解析结果，注册表为文件名到解析结果的映射
+     */
+    static <V> CompletableFuture<LoadReport<Map<String, V>>> load(Collection<String> names, Function<String, V> parser) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        Map<String, V> loaded = new ConcurrentHashMap<>();
+        Map<String, Duration> timings = new ConcurrentHashMap<>();
+        Map<String, Throwable> failures = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        CompletableFuture<?>[] tasks = names.stream()
+                .map(name -> CompletableFuture.runAsync(() -> {
+                    long fileStart = System.nanoTime();
+                    try {
+                        loaded.put(name, parser.apply(name));
+                    } catch (RuntimeException e) {
+                        failures.put(name, e);
+                    } finally {
+                        timings.put(name, Duration.ofNanos(System.nanoTime() - fileStart));
+                    }
+                }, executor))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(tasks)
+                .thenApply(ignored -> new LoadReport<>(Map.copyOf(loaded), Map.copyOf(timings), Map.copyOf(failures),
+                        Duration.ofNanos(System.nanoTime() - start)))
+                .whenComplete((report, throwable) -> executor.shutdown());
+    }
+}
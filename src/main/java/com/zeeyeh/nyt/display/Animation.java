@@ -0,0 +1,105 @@
+package com.zeeyeh.nyt.display;
+
+import com.zeeyeh.nyt.util.ColorUtil;
+import com.zeeyeh.nyt.util.GradientEngine;
+
+import java.util.Arrays;
+
+/**
+ * @author LeonKeiran
+ * @description 预先计算的动画，帧内容在创建时一次性格式化为最终文本，播放时只按序号读取
+ * 同一个动画可以同时给任意数量的玩家播放
+ * @date 2026/10/17 21:10
+ */
+public final class Animation {
+    private final String[] frames;
+    private final int interval;
+
+    private Animation(String[] frames, int interval) {
+        if (frames.length == 0) {
+            throw new IllegalArgumentException("动画帧不能为空");
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("动画帧间隔必须大于0");
+        }
+        this.frames = frames;
+        this.interval = interval;
+    }
+
+    /**
+     * 使用给定的帧创建动画，每一帧都会格式化颜色
+     *
+     * @param interval 帧间隔，单位tick
+     * @param frames   帧内容
+     * @return 动画
+     */
+    public static Animation of(int interval, String... frames) {
+        String[] translated = new String[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            translated[i] = ColorUtil.translate('&', frames[i], true);
+        }
+        return new Animation(translated, interval);
+    }
+
+    /**
+     * 创建渐变流动动画，颜色首尾相连，每一帧整体移动一个字符，帧数等于文本长度
+     * 文本中的格式代码会应用到每个字符上
+     *
+     * @param text     文本
+     * @param interval 帧间隔，单位tick
+     * @param mode     插值方式
+     * @param colors   颜色节点，格式为 RRGGBB 或 #RRGGBB
+     * @return 动画
+     */
+    public static Animation gradientShift(String text, int interval, GradientEngine.Interpolation mode, String... colors) {
+        if (colors.length == 0) {
+            throw new IllegalArgumentException("渐变颜色节点不能为空");
+        }
+        int[] stops = new int[colors.length + 1];
+        for (int i = 0; i < colors.length; i++) {
+            stops[i] = GradientEngine.parseColor(colors[i]);
+        }
+        stops[colors.length] = stops[0];
+        int visible = GradientEngine.visibleLength(text, 0, text.length(), '&');
+        if (visible == 0) {
+            return new Animation(new String[]{text}, interval);
+        }
+        // 多取一个颜色再丢弃与首个颜色相同的末尾，得到首尾平滑衔接的循环颜色表
+        int[] loop = Arrays.copyOf(GradientEngine.palette(mode, stops).colors(visible + 1), visible);
+        String[] frames = new String[visible];
+        for (int frame = 0; frame < visible; frame++) {
+            StringBuilder builder = new StringBuilder();
+            GradientEngine.renderShifted(builder, text, 0, text.length(), '&', loop, visible - frame);
+            frames[frame] = builder.toString();
+        }
+        return new Animation(frames, interval);
+    }
+
+    /**
+     * 获取帧内容
+     *
+     * @param index 帧序号，超出帧数时循环
+     * @return 帧内容
+     */
+    public String frame(long index) {
+        return frames[(int) Math.floorMod(index, (long) frames.length)];
+    }
+
+    /**
+     * 获取帧数
+     *
+     * @return 帧数
+     */
+    public int getFrameCount() {
+        return frames.length;
+    }
+
+    /**
+     * 获取帧间隔
+     *
+     * @return 帧间隔，单位tick
+     */
+    public int getInterval() {
+        return interval;
+    }
+}
@@ -0,0 +1,191 @@
+package com.zeeyeh.nyt.display;
+
+import com.zeeyeh.nyt.factory.ChatFactory;
+import com.zeeyeh.nyt.util.HashedTimerWheel;
+import com.zeeyeh.nyt.util.RegionDispatcher;
+import net.md_5.bungee.api.ChatMessageType;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @author LeonKeiran
+ * @description 动画调度器，所有动画共用一个时间轮，每次播放只有一个周期任务，所有观看者共享同一份帧数据
+ * 可在任意线程开始播放与修改观看者
+ * @date 2026/10/17 21:10
+ */
+public class AnimationScheduler {
+    // 标题帧额外停留的tick数，避免两帧之间标题闪烁
+    private static final int TITLE_OVERLAP_TICKS = 10;
+    private final HashedTimerWheel timerWheel;
+    private final DisplayCoalescer coalescer;
+    private final RegionDispatcher dispatcher;
+    private final Set<Playback> playbacks = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 构造函数
+     *
+     * @param timerWheel 时间轮，由调用方每tick推进
+     * @param coalescer  显示合并器，为null时直接发送
+     */
+    public AnimationScheduler(HashedTimerWheel timerWheel, DisplayCoalescer coalescer) {
+        this(timerWheel, coalescer, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param timerWheel 时间轮，由调用方每tick推进
+     * @param coalescer  显示合并器，为null时直接发送
+     * @param dispatcher 区域线程调度器，不使用显示合并器时通过它在玩家所在线程发送，为null时在时间轮线程直接发送
+     */
+    public AnimationScheduler(HashedTimerWheel timerWheel, DisplayCoalescer coalescer, RegionDispatcher dispatcher) {
+        this.timerWheel = timerWheel;
+        this.coalescer = coalescer;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * 动画显示位置
+     */
+    public enum Channel {
+        ACTION_BAR,
+        TITLE,
+        SUBTITLE
+    }
+
+    /**
+     * 给玩家播放动画
+     *
+     * @param viewers   观看的玩家
+     * @param animation 动画
+     * @param channel   显示位置
+     * @param loops     循环次数，0为无限循环
+     * @return 播放句柄
+     */
+    public Playback play(Collection<? extends Player> viewers, Animation animation, Channel channel, int loops) {
+        Playback playback = new Playback(animation, channel, loops, viewers);
+        playbacks.add(playback);
+        timerWheel.start(playback.timeout);
+        return playback;
+    }
+
+    /**
+     * 停止所有动画
+     */
+    public void cancelAll() {
+        for (Playback playback : playbacks) {
+            playback.cancel();
+        }
+    }
+
+    /**
+     * 获取正在播放的动画数量
+     *
+     * @return 动画数量
+     */
+    public int size() {
+        return playbacks.size();
+    }
+
+    /**
+     * 动画播放句柄，观看者可在任意线程修改
+     */
+    public final class Playback {
+        private final Animation animation;
+        private final Channel channel;
+        private final long totalFrames;
+        // 时间轮线程遍历，调用方线程修改
+        private final CopyOnWriteArrayList<Player> viewers;
+        // 在放入时间轮前创建，任务执行时一定已赋值
+        private final HashedTimerWheel.Timeout timeout;
+        private long frame;
+
+        private Playback(Animation animation, Channel channel, int loops, Collection<? extends Player> viewers) {
+            this.animation = animation;
+            this.channel = channel;
+            this.totalFrames = loops <= 0 ? Long.MAX_VALUE : (long) loops * animation.getFrameCount();
+            this.viewers = new CopyOnWriteArrayList<>(viewers);
+            this.timeout = timerWheel.create(1L, animation.getInterval(), this::tick);
+        }
+
+        /**
+         * 添加观看者
+         *
+         * @param player 玩家
+         */
+        public void addViewer(Player player) {
+            viewers.addIfAbsent(player);
+        }
+
+        /**
+         * 移除观看者
+         *
+         * @param player 玩家
+         */
+        public void removeViewer(Player player) {
+            viewers.remove(player);
+        }
+
+        /**
+         * 停止播放
+         */
+        public void cancel() {
+            timeout.cancel();
+            playbacks.remove(this);
+        }
+
+        /**
+         * 判断是否已停止播放
+         *
+         * @return 是否已停止
+         */
+        public boolean isFinished() {
+            return timeout.isCancelled();
+        }
+
+        private void tick() {
+            viewers.removeIf(player -> !player.isOnline());
+            if (viewers.isEmpty() || frame >= totalFrames) {
+                cancel();
+                return;
+            }
+            String text = animation.frame(frame++);
+            boolean last = frame == totalFrames;
+            for (Player player : viewers) {
+                send(player, text, last);
+            }
+        }
+
+        private void send(Player player, String text, boolean last) {
+            if (channel == Channel.ACTION_BAR) {
+                if (coalescer != null) {
+                    coalescer.actionBar(player, text);
+                } else {
+                    execute(player, () -> player.spigot().sendMessage(ChatMessageType.ACTION_BAR, ChatFactory.legacy(text)));
+                }
+                return;
+            }
+            String title = channel == Channel.TITLE ? text : "";
+            String subtitle = channel == Channel.SUBTITLE ? text : "";
+            int stay = animation.getInterval() + TITLE_OVERLAP_TICKS;
+            int fadeOut = last ? 20 : 0;
+            if (coalescer != null) {
+                coalescer.title(player, title, subtitle, 0, stay, fadeOut);
+            } else {
+                execute(player, () -> player.sendTitle(title, subtitle, 0, stay, fadeOut));
+            }
+        }
+
+        private void execute(Player player, Runnable task) {
+            if (dispatcher == null) {
+                task.run();
+            } else {
+                dispatcher.execute(player, task);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.zeeyeh.nyt.display;
+
+import com.zeeyeh.nyt.util.HashedTimerWheel;
+import com.zeeyeh.nyt.util.RegionDispatcher;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarFlag;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * @author LeonKeiran
+ * @description boss血条注册表，按标识管理血条，移除的底层血条放入对象池复用，过期由时间轮统一处理
+ * 所有方法只能在全局区域线程调用，Paper上即主线程；玩家退出事件在玩家所在区域的线程触发，交给全局区域线程处理
+ * @date 2026/10/17 20:40
+ */
+public class BossBarRegistry implements Listener {
+    // 对象池最多保留的底层血条数量
+    private static final int MAX_POOL_SIZE = 64;
+    private final Plugin plugin;
+    private final HashedTimerWheel timerWheel;
+    private final RegionDispatcher dispatcher;
+    private final Map<String, ManagedBossBar> bars = new HashMap<>();
+    private final Deque<BossBar> pool = new ArrayDeque<>();
+
+    /**
+     * 构造函数
+     *
+     * @param plugin     插件实例
+     * @param timerWheel 用于血条过期的时间轮，由调用方每tick推进
+     */
+    public BossBarRegistry(Plugin plugin, HashedTimerWheel timerWheel) {
+        this(plugin, timerWheel, new RegionDispatcher(plugin));
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param plugin     插件实例
+     * @param timerWheel 用于血条过期的时间轮，由调用方在全局区域线程每tick推进
+     * @param dispatcher 区域线程调度器
+     */
+    public BossBarRegistry(Plugin plugin, HashedTimerWheel timerWheel, RegionDispatcher dispatcher) {
+        this.plugin = plugin;
+        this.timerWheel = timerWheel;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * 注册玩家退出监听
+     */
+    public void start() {
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * 移除所有血条并注销监听
+     */
+    public void close() {
+        HandlerList.unregisterAll(this);
+        for (ManagedBossBar bar : new ArrayList<>(bars.values())) {
+            bar.remove();
+        }
+        pool.clear();
+    }
+
+    /**
+     * 获取或创建血条，已存在时只更新发生变化的属性
+     *
+     * @param id       血条标识
+     * @param title    已格式化颜色的标题
+     * @param color    颜色
+     * @param style    样式
+     * @param barFlags 额外标签
+     * @return 血条
+     */
+    public ManagedBossBar show(String id, String title, BarColor color, BarStyle style, BarFlag... barFlags) {
+        ManagedBossBar bar = bars.get(id);
+        if (bar == null) {
+            BossBar handle = pool.poll();
+            if (handle == null) {
+                handle = plugin.getServer().createBossBar(title, color, style);
+            }
+            bar = new ManagedBossBar(this, id, handle);
+            bars.put(id, bar);
+            handle.setVisible(true);
+            bar.progress(1D);
+        }
+        return bar.title(title).color(color).style(style).flags(barFlags);
+    }
+
+    /**
+     * 获取血条
+     *
+     * @param id 血条标识
+     * @return 血条，不存在时返回null
+     */
+    public ManagedBossBar get(String id) {
+        return bars.get(id);
+    }
+
+    /**
+     * 移除血条
+     *
+     * @param id 血条标识
+     * @return 是否存在并已移除
+     */
+    public boolean remove(String id) {
+        ManagedBossBar bar = bars.get(id);
+        if (bar == null) {
+            return false;
+        }
+        remove(bar);
+        return true;
+    }
+
+    /**
+     * 获取所有血条
+     *
+     * @return 血条集合
+     */
+    public Collection<ManagedBossBar> getBars() {
+        return bars.values();
+    }
+
+    /**
+     * 获取血条过期使用的时间轮
+     *
+     * @return 时间轮
+     */
+    public HashedTimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+
+    void remove(ManagedBossBar bar) {
+        if (bar.isRemoved() || bars.get(bar.getId()) != bar) {
+            return;
+        }
+        bars.remove(bar.getId());
+        BossBar handle = bar.release();
+        if (pool.size() < MAX_POOL_SIZE) {
+            handle.setVisible(false);
+            pool.push(handle);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        UUID playerId = event.getPlayer().getUniqueId();
+        dispatcher.executeGlobal(() -> {
+            for (ManagedBossBar bar : bars.values()) {
+                bar.playerQuit(playerId);
+            }
+        });
+    }
+}
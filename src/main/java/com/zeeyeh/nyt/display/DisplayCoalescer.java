@@ -0,0 +1,254 @@
+package com.zeeyeh.nyt.display;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import com.zeeyeh.nyt.factory.ChatFactory;
+import com.zeeyeh.nyt.util.RegionDispatcher;
+import net.md_5.bungee.api.ChatMessageType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * @author LeonKeiran
+ * @description 玩家显示合并器，同一tick内对快捷栏与标题的多次写入只保留最后一次，在tick结束时统一发送
+ * 内容与上次发送相同且仍在显示时不再重复发送
+ * Folia上没有全局的tick结束事件，改为由玩家所在区域的线程在下一次调度时发送
+ * @date 2026/10/17 20:10
+ */
+public class DisplayCoalescer implements Listener {
+    // 快捷栏消息约3秒后消失，相同内容超过该间隔后重新发送以保持显示
+    public static final int ACTION_BAR_REFRESH_TICKS = 40;
+    private final Plugin plugin;
+    private final RegionDispatcher dispatcher;
+    private final Map<UUID, PlayerDisplay> displays = new ConcurrentHashMap<>();
+    // 本tick有待发送内容的玩家，每个玩家在一个tick内最多入队一次
+    private final Queue<PlayerDisplay> dirty = new ConcurrentLinkedQueue<>();
+    private volatile int currentTick;
+
+    /**
+     * 构造函数
+     *
+     * @param plugin 插件实例
+     */
+    public DisplayCoalescer(Plugin plugin) {
+        this(plugin, new RegionDispatcher(plugin));
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param plugin     插件实例
+     * @param dispatcher 区域线程调度器
+     */
+    public DisplayCoalescer(Plugin plugin, RegionDispatcher dispatcher) {
+        this.plugin = plugin;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * 注册tick结束与玩家退出监听
+     */
+    public void start() {
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * 发送所有待发送内容并注销监听
+     */
+    public void close() {
+        flush();
+        HandlerList.unregisterAll(this);
+        displays.clear();
+    }
+
+    /**
+     * 写入快捷栏内容，覆盖本tick内尚未发送的快捷栏内容
+     *
+     * @param player 目标玩家
+     * @param text   已格式化颜色的内容
+     */
+    public void actionBar(Player player, String text) {
+        PlayerDisplay display = display(player);
+        if (display == null) {
+            return;
+        }
+        synchronized (display) {
+            display.pendingActionBar = text;
+        }
+        markDirty(display);
+    }
+
+    /**
+     * 写入标题内容，覆盖本tick内尚未发送的标题
+     *
+     * @param player   目标玩家
+     * @param title    已格式化颜色的标题
+     * @param subtitle 已格式化颜色的副标题
+     * @param fadeIn   淡入时长
+     * @param stay     停留时长
+     * @param fadeOut  淡出时长
+     */
+    public void title(Player player, String title, String subtitle, int fadeIn, int stay, int fadeOut) {
+        PlayerDisplay display = display(player);
+        if (display == null) {
+            return;
+        }
+        synchronized (display) {
+            display.pendingTitle = new Title(title, subtitle, fadeIn, stay, fadeOut);
+        }
+        markDirty(display);
+    }
+
+    /**
+     * 清除玩家待发送与已记录的标题，在重置玩家标题时调用
+     *
+     * @param player 目标玩家
+     */
+    public void resetTitle(Player player) {
+        PlayerDisplay display = displays.get(player.getUniqueId());
+        if (display == null) {
+            return;
+        }
+        synchronized (display) {
+            display.pendingTitle = null;
+            display.lastTitle = null;
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        currentTick = event.getTickNumber();
+        flush();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        displays.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * 发送所有玩家的待发送内容，只能在主线程调用
+     */
+    public void flush() {
+        PlayerDisplay display;
+        while ((display = dirty.poll()) != null) {
+            flush(display);
+        }
+    }
+
+    /**
+     * 发送单个玩家的待发送内容，只能在拥有该玩家的线程调用
+     */
+    private void flush(PlayerDisplay display) {
+        int tick = tick();
+        String actionBar;
+        Title title;
+        synchronized (display) {
+            display.queued = false;
+            actionBar = display.pendingActionBar;
+            title = display.pendingTitle;
+            display.pendingActionBar = null;
+            display.pendingTitle = null;
+            if (actionBar != null && actionBar.equals(display.lastActionBar)
+                    && tick - display.lastActionBarTick < ACTION_BAR_REFRESH_TICKS) {
+                actionBar = null;
+            }
+            if (title != null && title.sameContent(display.lastTitle)
+                    && tick - display.lastTitleTick < display.lastTitle.fadeIn() + display.lastTitle.stay()) {
+                title = null;
+            }
+            if (actionBar != null) {
+                display.lastActionBar = actionBar;
+                display.lastActionBarTick = tick;
+            }
+            if (title != null) {
+                display.lastTitle = title;
+                display.lastTitleTick = tick;
+            }
+        }
+        Player player = display.player;
+        if (!player.isOnline()) {
+            return;
+        }
+        if (actionBar != null) {
+            player.spigot().sendMessage(ChatMessageType.ACTION_BAR, ChatFactory.legacy(actionBar));
+        }
+        if (title != null) {
+            player.sendTitle(title.title(), title.subtitle(), title.fadeIn(), title.stay(), title.fadeOut());
+        }
+    }
+
+    private int tick() {
+        // Folia上各区域的tick互不同步，按经过的时间换算
+        return RegionDispatcher.isFolia() ? (int) (System.nanoTime() / 50_000_000L) : currentTick;
+    }
+
+    /**
+     * 获取玩家的显示状态，玩家已离线时返回null，避免为已退出的玩家重新创建状态
+     */
+    private PlayerDisplay display(Player player) {
+        if (!player.isOnline()) {
+            return null;
+        }
+        PlayerDisplay display = displays.computeIfAbsent(player.getUniqueId(), id -> new PlayerDisplay(player));
+        if (display.player != player) {
+            // 玩家重新进入服务器后是新的实例
+            display.player = player;
+        }
+        return display;
+    }
+
+    private void markDirty(PlayerDisplay display) {
+        synchronized (display) {
+            if (display.queued) {
+                return;
+            }
+            display.queued = true;
+        }
+        if (RegionDispatcher.isFolia()) {
+            Player player = display.player;
+            dispatcher.schedule(player, () -> flush(display));
+        } else {
+            dirty.add(display);
+        }
+    }
+
+    /**
+     * 标题内容
+     */
+    private record Title(String title, String subtitle, int fadeIn, int stay, int fadeOut) {
+
+        private boolean sameContent(Title other) {
+            return other != null && Objects.equals(title, other.title) && Objects.equals(subtitle, other.subtitle);
+        }
+    }
+
+    /**
+     * 单个玩家的显示状态，字段由对象锁保护
+     */
+    private static final class PlayerDisplay {
+        private volatile Player player;
+        private boolean queued;
+        private String pendingActionBar;
+        private Title pendingTitle;
+        private String lastActionBar;
+        private int lastActionBarTick;
+        private Title lastTitle;
+        private int lastTitleTick;
+
+        private PlayerDisplay(Player player) {
+            this.player = player;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.zeeyeh.nyt.display;
+
+import com.zeeyeh.nyt.util.HashedTimerWheel;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarFlag;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * @author LeonKeiran
+ * @description 受管理的boss血条，只在属性实际变化时更新底层血条，玩家按差异增删
+ * 所有方法只能在全局区域线程调用，Paper上即主线程
+ * @date 2026/10/17 20:40
+ */
+public final class ManagedBossBar {
+    private final BossBarRegistry registry;
+    private final String id;
+    private final BossBar bar;
+    private final Map<UUID, Player> viewers = new HashMap<>();
+    private final Set<BarFlag> flags = EnumSet.noneOf(BarFlag.class);
+    private String title;
+    private double progress;
+    private BarColor color;
+    private BarStyle style;
+    private HashedTimerWheel.Timeout expiry;
+    private boolean removed;
+
+    ManagedBossBar(BossBarRegistry registry, String id, BossBar bar) {
+        this.registry = registry;
+        this.id = id;
+        this.bar = bar;
+        this.title = bar.getTitle();
+        this.progress = bar.getProgress();
+        this.color = bar.getColor();
+        this.style = bar.getStyle();
+        for (BarFlag flag : BarFlag.values()) {
+            if (bar.hasFlag(flag)) {
+                flags.add(flag);
+            }
+        }
+    }
+
+    /**
+     * 设置标题
+     *
+     * @param title 已格式化颜色的标题
+     * @return 当前血条
+     */
+    public ManagedBossBar title(String title) {
+        if (!title.equals(this.title)) {
+            this.title = title;
+            bar.setTitle(title);
+        }
+        return this;
+    }
+
+    /**
+     * 设置进度
+     *
+     * @param progress 进度，超出 0 到 1 的部分会被截断
+     * @return 当前血条
+     */
+    public ManagedBossBar progress(double progress) {
+        double value = Math.min(1D, Math.max(0D, progress));
+        if (value != this.progress) {
+            this.progress = value;
+            bar.setProgress(value);
+        }
+        return this;
+    }
+
+    /**
+     * 设置颜色
+     *
+     * @param color 颜色
+     * @return 当前血条
+     */
+    public ManagedBossBar color(BarColor color) {
+        if (color != this.color) {
+            this.color = color;
+            bar.setColor(color);
+        }
+        return this;
+    }
+
+    /**
+     * 设置样式
+     *
+     * @param style 样式
+     * @return 当前血条
+     */
+    public ManagedBossBar style(BarStyle style) {
+        if (style != this.style) {
+            this.style = style;
+            bar.setStyle(style);
+        }
+        return this;
+    }
+
+    /**
+     * 设置额外标签，未列出的标签会被移除
+     *
+     * @param barFlags 额外标签
+     * @return 当前血条
+     */
+    public ManagedBossBar flags(BarFlag... barFlags) {
+        Set<BarFlag> target = EnumSet.noneOf(BarFlag.class);
+        target.addAll(Arrays.asList(barFlags));
+        for (BarFlag flag : BarFlag.values()) {
+            boolean wanted = target.contains(flag);
+            if (wanted != flags.contains(flag)) {
+                if (wanted) {
+                    flags.add(flag);
+                    bar.addFlag(flag);
+                } else {
+                    flags.remove(flag);
+                    bar.removeFlag(flag);
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 给玩家显示血条
+     *
+     * @param player 玩家
+     * @return 当前血条
+     */
+    public ManagedBossBar addPlayer(Player player) {
+        if (viewers.put(player.getUniqueId(), player) != player) {
+            bar.addPlayer(player);
+        }
+        return this;
+    }
+
+    /**
+     * 对玩家隐藏血条
+     *
+     * @param player 玩家
+     * @return 当前血条
+     */
+    public ManagedBossBar removePlayer(Player player) {
+        Player viewer = viewers.remove(player.getUniqueId());
+        if (viewer != null) {
+            bar.removePlayer(viewer);
+        }
+        return this;
+    }
+
+    /**
+     * 设置可以看到血条的玩家，只对新增和移除的玩家发送更新
+     *
+     * @param players 玩家
+     * @return 当前血条
+     */
+    public ManagedBossBar players(Collection<? extends Player> players) {
+        Set<UUID> target = new HashSet<>(players.size() * 2);
+        for (Player player : players) {
+            target.add(player.getUniqueId());
+        }
+        Iterator<Map.Entry<UUID, Player>> iterator = viewers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Player> entry = iterator.next();
+            if (!target.contains(entry.getKey())) {
+                bar.removePlayer(entry.getValue());
+                iterator.remove();
+            }
+        }
+        for (Player player : players) {
+            addPlayer(player);
+        }
+        return this;
+    }
+
+    /**
+     * 在指定tick数后移除血条，再次调用会重新计时
+     *
+     * @param ticks tick数
+     * @return 当前血条
+     */
+    public ManagedBossBar expireAfter(long ticks) {
+        cancelExpiry();
+        expiry = registry.getTimerWheel().schedule(ticks, this::remove);
+        return this;
+    }
+
+    /**
+     * 取消自动移除
+     *
+     * @return 当前血条
+     */
+    public ManagedBossBar cancelExpiry() {
+        if (expiry != null) {
+            expiry.cancel();
+            expiry = null;
+        }
+        return this;
+    }
+
+    /**
+     * 移除血条，底层血条回收后供其他血条复用
+     */
+    public void remove() {
+        registry.remove(this);
+    }
+
+    /**
+     * 获取血条标识
+     *
+     * @return 标识
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 获取血条当前的观看者数量
+     *
+     * @return 玩家数量
+     */
+    public int getViewerCount() {
+        return viewers.size();
+    }
+
+    /**
+     * 判断血条是否已被移除
+     *
+     * @return 是否已移除
+     */
+    public boolean isRemoved() {
+        return removed;
+    }
+
+    BossBar release() {
+        cancelExpiry();
+        removed = true;
+        bar.removeAll();
+        viewers.clear();
+        return bar;
+    }
+
+    void playerQuit(UUID playerId) {
+        Player viewer = viewers.remove(playerId);
+        if (viewer != null) {
+            bar.removePlayer(viewer);
+        }
+    }
+}
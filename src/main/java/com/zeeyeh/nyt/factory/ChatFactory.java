@@ -1,10 +1,288 @@
 package com.zeeyeh.nyt.factory;
 
+import com.zeeyeh.nyt.util.ColorUtil;
+import com.zeeyeh.nyt.util.LruCache;
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.ClickEvent;
+import net.md_5.bungee.api.chat.TextComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author LeonKeiran
- * @description 消息工厂
+ * @description 消息工厂，链式构建包含颜色、悬停、点击与语言键的富文本消息
+ * 构建结果为不可变的 {@link ChatMessage}，可以保存下来重复发送
  * @date 2025/3/6 20:20
  */
 public class ChatFactory {
+    // 已格式化颜色的文本对应的组件，快捷栏等高频发送路径共用
+    private static final LruCache<String, BaseComponent[]> LEGACY_COMPONENTS = new LruCache<>(1024);
+    private final List<ChatMessage.Part> parts = new ArrayList<>();
+    private ChatMessage.Part current;
+
+    private ChatFactory() {
+    }
+
+    /**
+     * 创建消息构建器
+     *
+     * @return 消息构建器
+     */
+    public static ChatFactory create() {
+        return new ChatFactory();
+    }
+
+    /**
+     * 获取已格式化颜色的文本对应的组件，相同文本共享同一个数组，返回的组件不可修改
+     *
+     * @param text 已格式化颜色的文本
+     * @return 组件数组
+     */
+    public static BaseComponent[] legacy(String text) {
+        return LEGACY_COMPONENTS.get(text, TextComponent::fromLegacyText);
+    }
+
+    /**
+     * 获取文本组件缓存
+     *
+     * @return 组件缓存
+     */
+    public static LruCache<String, BaseComponent[]> getComponentCache() {
+        return LEGACY_COMPONENTS;
+    }
+
+    /**
+     * 追加文本片段，支持 & 颜色代码与16进制颜色
+     *
+     * @param text 文本内容
+     * @return 当前构建器
+     */
+    public ChatFactory text(String text) {
+        return append(new ChatMessage.Part(ChatMessage.PartType.TEXT, text, new String[0]));
+    }
+
+    /**
+     * 追加语言键片段，发送时按接收者的语言翻译
+     *
+     * @param key    语言键
+     * @param params 参数数组
+     * @return 当前构建器
+     */
+    public ChatFactory translate(String key, String... params) {
+        return append(new ChatMessage.Part(ChatMessage.PartType.LANGUAGE, key, params.clone()));
+    }
+
+    /**
+     * 追加客户端翻译片段，由客户端使用游戏自带的语言文件翻译
+     *
+     * @param key  客户端翻译键
+     * @param with 参数数组
+     * @return 当前构建器
+     */
+    public ChatFactory translatable(String key, String... with) {
+        return append(new ChatMessage.Part(ChatMessage.PartType.TRANSLATABLE, key, with.clone()));
+    }
+
+    /**
+     * 追加换行
+     *
+     * @return 当前构建器
+     */
+    public ChatFactory newline() {
+        return text("\n");
+    }
+
+    /**
+     * 设置当前片段的颜色
+     *
+     * @param color 颜色
+     * @return 当前构建器
+     */
+    public ChatFactory color(ChatColor color) {
+        current().color = color;
+        return this;
+    }
+
+    /**
+     * 设置当前片段的16进制颜色
+     *
+     * @param hex 颜色，格式为 #RRGGBB
+     * @return 当前构建器
+     */
+    public ChatFactory color(String hex) {
+        return color(ChatColor.of(hex));
+    }
+
+    /**
+     * 设置当前片段为粗体
+     *
+     * @return 当前构建器
+     */
+    public ChatFactory bold() {
+        current().bold = true;
+        return this;
+    }
+
+    /**
+     * 设置当前片段为斜体
+     *
+     * @return 当前构建器
+     */
+    public ChatFactory italic() {
+        current().italic = true;
+        return this;
+    }
+
+    /**
+     * 设置当前片段带下划线
+     *
+     * @return 当前构建器
+     */
+    public ChatFactory underlined() {
+        current().underlined = true;
+        return this;
+    }
+
+    /**
+     * 设置当前片段带删除线
+     *
+     * @return 当前构建器
+     */
+    public ChatFactory strikethrough() {
+        current().strikethrough = true;
+        return this;
+    }
+
+    /**
+     * 设置当前片段为随机字符
+     *
+     * @return 当前构建器
+     */
+    public ChatFactory obfuscated() {
+        current().obfuscated = true;
+        return this;
+    }
+
+    /**
+     * 设置当前片段的悬停文本，支持 & 颜色代码
+     *
+     * @param text 悬停文本
+     * @return 当前构建器
+     */
+    public ChatFactory hover(String text) {
+        ChatMessage.Part part = current();
+        part.hover = text;
+        part.hoverKey = false;
+        return this;
+    }
+
+    /**
+     * 设置当前片段的悬停文本为语言键，发送时按接收者的语言翻译
+     *
+     * @param key 语言键
+     * @return 当前构建器
+     */
+    public ChatFactory hoverTranslate(String key) {
+        ChatMessage.Part part = current();
+        part.hover = key;
+        part.hoverKey = true;
+        return this;
+    }
+
+    /**
+     * 设置当前片段的点击事件
+     *
+     * @param action 点击行为
+     * @param value  点击内容
+     * @return 当前构建器
+     */
+    public ChatFactory click(ClickEvent.Action action, String value) {
+        ChatMessage.Part part = current();
+        part.clickAction = action;
+        part.clickValue = value;
+        return this;
+    }
+
+    /**
+     * 点击当前片段时执行命令
+     *
+     * @param command 命令，包含斜杠
+     * @return 当前构建器
+     */
+    public ChatFactory runCommand(String command) {
+        return click(ClickEvent.Action.RUN_COMMAND, command);
+    }
+
+    /**
+     * 点击当前片段时将命令填入聊天栏
+     *
+     * @param command 命令，包含斜杠
+     * @return 当前构建器
+     */
+    public ChatFactory suggestCommand(String command) {
+        return click(ClickEvent.Action.SUGGEST_COMMAND, command);
+    }
+
+    /**
+     * 点击当前片段时打开链接
+     *
+     * @param url 链接
+     * @return 当前构建器
+     */
+    public ChatFactory openUrl(String url) {
+        return click(ClickEvent.Action.OPEN_URL, url);
+    }
+
+    /**
+     * 点击当前片段时复制内容
+     *
+     * @param text 复制的内容
+     * @return 当前构建器
+     */
+    public ChatFactory copyToClipboard(String text) {
+        return click(ClickEvent.Action.COPY_TO_CLIPBOARD, text);
+    }
+
+    /**
+     * 按住Shift点击当前片段时插入聊天栏的内容
+     *
+     * @param insertion 插入内容
+     * @return 当前构建器
+     */
+    public ChatFactory insertion(String insertion) {
+        current().insertion = insertion;
+        return this;
+    }
+
+    /**
+     * 构建消息，构建器可以继续使用，不会影响已构建的消息
+     *
+     * @return 不可变消息
+     */
+    public ChatMessage build() {
+        List<ChatMessage.Part> copy = new ArrayList<>(parts.size());
+        for (ChatMessage.Part part : parts) {
+            copy.add(part.copy());
+        }
+        return new ChatMessage(copy);
+    }
+
+    private ChatFactory append(ChatMessage.Part part) {
+        parts.add(part);
+        current = part;
+        return this;
+    }
+
+    private ChatMessage.Part current() {
+        if (current == null) {
+            throw new IllegalStateException("请先添加文本或语言键片段");
+        }
+        return current;
+    }
 
+    static BaseComponent[] legacyText(String text) {
+        return TextComponent.fromLegacyText(ColorUtil.translate('&', text, true));
+    }
 }
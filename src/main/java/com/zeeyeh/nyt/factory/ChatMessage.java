@@ -0,0 +1,304 @@
+package com.zeeyeh.nyt.factory;
+
+import com.zeeyeh.nyt.Messenger;
+import com.zeeyeh.nyt.api.Translator;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.ClickEvent;
+import net.md_5.bungee.api.chat.HoverEvent;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.md_5.bungee.api.chat.TranslatableComponent;
+import net.md_5.bungee.api.chat.hover.content.Text;
+import net.md_5.bungee.chat.ComponentSerializer;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author LeonKeiran
+ * @description 不可变的富文本消息，组件树、JSON、Adventure组件与纯文本在首次使用时生成并缓存，之后重复发送不再构建与转换
+ * 发送给玩家时使用缓存的Adventure组件，并在玩家所在区域的线程执行
+ * 包含语言键的消息按语言分别缓存，语言文件重新加载后自动失效
+ * 缓存的组件在多个玩家之间共享，不可修改
+ * @date 2026/10/17 21:40
+ */
+public final class ChatMessage {
+    // 不包含语言键的消息只有一种结果
+    private static final String ANY_LANGUAGE = "";
+    private final List<Part> parts;
+    private final boolean localized;
+    private volatile Variants variants = new Variants(-1L);
+
+    ChatMessage(List<Part> parts) {
+        this.parts = List.copyOf(parts);
+        boolean localized = false;
+        for (Part part : this.parts) {
+            localized |= part.type == PartType.LANGUAGE || part.hoverKey;
+        }
+        this.localized = localized;
+    }
+
+    /**
+     * 片段类型
+     */
+    enum PartType {
+        TEXT,
+        LANGUAGE,
+        TRANSLATABLE
+    }
+
+    /**
+     * 消息片段，构建期间可修改，构建后复制一份保存在消息中
+     */
+    static final class Part {
+        private final PartType type;
+        private final String content;
+        private final String[] params;
+        ChatColor color;
+        boolean bold;
+        boolean italic;
+        boolean underlined;
+        boolean strikethrough;
+        boolean obfuscated;
+        String hover;
+        boolean hoverKey;
+        ClickEvent.Action clickAction;
+        String clickValue;
+        String insertion;
+
+        Part(PartType type, String content, String[] params) {
+            this.type = type;
+            this.content = content;
+            this.params = params;
+        }
+
+        Part copy() {
+            Part part = new Part(type, content, params);
+            part.color = color;
+            part.bold = bold;
+            part.italic = italic;
+            part.underlined = underlined;
+            part.strikethrough = strikethrough;
+            part.obfuscated = obfuscated;
+            part.hover = hover;
+            part.hoverKey = hoverKey;
+            part.clickAction = clickAction;
+            part.clickValue = clickValue;
+            part.insertion = insertion;
+            return part;
+        }
+    }
+
+    /**
+     * 某一语言快照版本下各语言的渲染结果
+     */
+    private static final class Variants {
+        private final long version;
+        private final Map<String, Rendered> rendered = new ConcurrentHashMap<>();
+
+        private Variants(long version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * 单个语言的渲染结果，JSON、Adventure组件与纯文本按需生成
+     */
+    private static final class Rendered {
+        private final BaseComponent[] components;
+        private volatile String json;
+        private volatile Component component;
+        private volatile String legacy;
+
+        private Rendered(BaseComponent[] components) {
+            this.components = components;
+        }
+    }
+
+    /**
+     * 获取指定语言的组件
+     *
+     * @param language 语言名称
+     * @return 组件数组，不可修改
+     */
+    public BaseComponent[] components(String language) {
+        return rendered(language).components;
+    }
+
+    /**
+     * 获取接收者语言的组件
+     *
+     * @param sender 消息接收者
+     * @return 组件数组，不可修改
+     */
+    public BaseComponent[] components(CommandSender sender) {
+        return components(languageOf(sender));
+    }
+
+    /**
+     * 获取指定语言的JSON文本
+     *
+     * @param language 语言名称
+     * @return JSON文本
+     */
+    public String toJson(String language) {
+        Rendered rendered = rendered(language);
+        String json = rendered.json;
+        if (json == null) {
+            json = ComponentSerializer.toString(rendered.components);
+            rendered.json = json;
+        }
+        return json;
+    }
+
+    /**
+     * 获取指定语言的Adventure组件，由缓存的JSON转换一次，发送时服务器不再转换
+     *
+     * @param language 语言名称
+     * @return Adventure组件
+     */
+    public Component toComponent(String language) {
+        Rendered rendered = rendered(language);
+        Component component = rendered.component;
+        if (component == null) {
+            component = GsonComponentSerializer.gson().deserialize(toJson(language));
+            rendered.component = component;
+        }
+        return component;
+    }
+
+    /**
+     * 获取指定语言的 § 格式纯文本，用于控制台等不支持组件的接收者
+     *
+     * @param language 语言名称
+     * @return 纯文本
+     */
+    public String toLegacyText(String language) {
+        Rendered rendered = rendered(language);
+        String legacy = rendered.legacy;
+        if (legacy == null) {
+            legacy = BaseComponent.toLegacyText(rendered.components);
+            rendered.legacy = legacy;
+        }
+        return legacy;
+    }
+
+    /**
+     * 发送给消息接收者，控制台接收纯文本，可在任意线程调用
+     *
+     * @param sender 消息接收者
+     */
+    public void send(CommandSender sender) {
+        String language = languageOf(sender);
+        if (sender instanceof Player player) {
+            Component component = toComponent(language);
+            Messenger.dispatch(player, () -> player.sendMessage(component));
+        } else {
+            sender.sendMessage(toLegacyText(language));
+        }
+    }
+
+    /**
+     * 发送给多个玩家，同语言的玩家共享同一份组件，按区域分批发送，可在任意线程调用
+     *
+     * @param players 玩家
+     */
+    public void send(Collection<? extends Player> players) {
+        Messenger.dispatchBatches(players, batch -> {
+            for (Player player : batch) {
+                player.sendMessage(toComponent(languageOf(player)));
+            }
+        });
+    }
+
+    /**
+     * 在玩家快捷栏显示，可在任意线程调用
+     *
+     * @param player 玩家
+     */
+    public void sendActionBar(Player player) {
+        Component component = toComponent(languageOf(player));
+        Messenger.dispatch(player, () -> player.sendActionBar(component));
+    }
+
+    /**
+     * 判断消息是否包含需要按语言翻译的片段
+     *
+     * @return 是否包含语言键
+     */
+    public boolean isLocalized() {
+        return localized;
+    }
+
+    private String languageOf(CommandSender sender) {
+        return localized ? Translator.getLanguage(sender) : ANY_LANGUAGE;
+    }
+
+    private Rendered rendered(String language) {
+        String key = localized ? language : ANY_LANGUAGE;
+        Variants current = this.variants;
+        if (localized) {
+            long version = Translator.getVersion();
+            if (current.version != version) {
+                current = new Variants(version);
+                this.variants = current;
+            }
+        }
+        Rendered rendered = current.rendered.get(key);
+        if (rendered == null) {
+            rendered = current.rendered.computeIfAbsent(key, ignored -> new Rendered(build(key)));
+        }
+        return rendered;
+    }
+
+    private BaseComponent[] build(String language) {
+        BaseComponent[] components = new BaseComponent[parts.size()];
+        for (int i = 0; i < components.length; i++) {
+            components[i] = build(parts.get(i), language);
+        }
+        return components;
+    }
+
+    private BaseComponent build(Part part, String language) {
+        BaseComponent component = switch (part.type) {
+            case TEXT -> new TextComponent(ChatFactory.legacyText(part.content));
+            case LANGUAGE -> new TextComponent(ChatFactory.legacyText(Translator.translateLanguage(language, part.content, part.params)));
+            case TRANSLATABLE -> new TranslatableComponent(part.content, (Object[]) part.params);
+        };
+        if (part.color != null) {
+            component.setColor(part.color);
+        }
+        if (part.bold) {
+            component.setBold(true);
+        }
+        if (part.italic) {
+            component.setItalic(true);
+        }
+        if (part.underlined) {
+            component.setUnderlined(true);
+        }
+        if (part.strikethrough) {
+            component.setStrikethrough(true);
+        }
+        if (part.obfuscated) {
+            component.setObfuscated(true);
+        }
+        if (part.hover != null) {
+            String hover = part.hoverKey ? Translator.translateLanguage(language, part.hover) : part.hover;
+            component.setHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, new Text(ChatFactory.legacyText(hover))));
+        }
+        if (part.clickAction != null) {
+            component.setClickEvent(new ClickEvent(part.clickAction, part.clickValue));
+        }
+        if (part.insertion != null) {
+            component.setInsertion(part.insertion);
+        }
+        return component;
+    }
+}
@@ -0,0 +1,37 @@
+package com.zeeyeh.nyt.listener;
+
+import com.zeeyeh.nyt.config.LanguageManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * @author LeonKeiran
+ * @description 玩家语言监听器，维护每个玩家的客户端语言
+ * @date 2026/10/17 13:30
+ */
+public class LanguageListener implements Listener {
+    private final LanguageManager languageManager;
+
+    public LanguageListener(LanguageManager languageManager) {
+        this.languageManager = languageManager;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        languageManager.updatePlayerLocale(event.getPlayer().getUniqueId(), event.getPlayer().locale());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLocaleChange(PlayerLocaleChangeEvent event) {
+        languageManager.updatePlayerLocale(event.getPlayer().getUniqueId(), event.locale());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        languageManager.removePlayer(event.getPlayer().getUniqueId());
+    }
+}
@@ -0,0 +1,129 @@
+package com.zeeyeh.nyt.messaging;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * @author LeonKeiran
+ * @description 插件消息帧编解码
+ * 帧格式：1字节标志位，压缩时接着是varint格式的解压后长度；消息体由多条 [varint长度][内容] 组成，压缩时整体使用Deflate压缩
+ * @date 2026/10/17 22:40
+ */
+public final class FrameCodec {
+    /**
+     * 消息体已压缩
+     */
+    public static final int FLAG_COMPRESSED = 1;
+    /**
+     * 帧头最大长度
+     */
+    public static final int MAX_HEADER_SIZE = 6;
+    // 解压后的最大长度，防止恶意构造的压缩数据占满内存
+    private static final int MAX_UNCOMPRESSED_SIZE = 8 * 1024 * 1024;
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private FrameCodec() {
+    }
+
+    /**
+     * 写入varint
+     *
+     * @param buffer 缓冲区
+     * @param value  非负整数
+     */
+    public static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * 读取varint
+     *
+     * @param buffer 缓冲区
+     * @return 整数
+     */
+    public static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("插件消息帧中的varint过长");
+    }
+
+    /**
+     * 计算varint占用的字节数
+     *
+     * @param value 非负整数
+     * @return 字节数
+     */
+    public static int varIntSize(int value) {
+        return value == 0 ? 1 : (31 - Integer.numberOfLeadingZeros(value)) / 7 + 1;
+    }
+
+    /**
+     * 解码帧，按顺序回调每条消息
+     * 未压缩时回调的缓冲区直接引用帧数据，只在回调期间有效
+     *
+     * @param frame    帧数据
+     * @param consumer 消息接收函数
+     * @return 消息数量
+     */
+    public static int decode(byte[] frame, Consumer<ByteBuffer> consumer) {
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        if (!buffer.hasRemaining()) {
+            return 0;
+        }
+        int flags = buffer.get();
+        ByteBuffer body = buffer;
+        if ((flags & FLAG_COMPRESSED) != 0) {
+            body = inflate(buffer, readVarInt(buffer));
+        }
+        int count = 0;
+        while (body.hasRemaining()) {
+            int length = readVarInt(body);
+            if (length < 0 || length > body.remaining()) {
+                throw new IllegalArgumentException("插件消息帧长度无效: " + length);
+            }
+            ByteBuffer message = body.slice(body.position(), length).asReadOnlyBuffer();
+            body.position(body.position() + length);
+            consumer.accept(message);
+            count++;
+        }
+        return count;
+    }
+
+    private static ByteBuffer inflate(ByteBuffer compressed, int length) {
+        if (length < 0 || length > MAX_UNCOMPRESSED_SIZE) {
+            throw new IllegalArgumentException("插件消息帧解压后长度无效: " + length);
+        }
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(compressed.array(), compressed.arrayOffset() + compressed.position(), compressed.remaining());
+        byte[] output = new byte[length];
+        try {
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(output, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new IllegalArgumentException("插件消息帧解压后长度不一致");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("插件消息帧解压失败", e);
+        }
+        return ByteBuffer.wrap(output);
+    }
+}
@@ -0,0 +1,284 @@
+package com.zeeyeh.nyt.messaging;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import com.zeeyeh.nyt.util.BufferPool;
+import com.zeeyeh.nyt.util.RegionDispatcher;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.messaging.Messenger;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.Deflater;
+
+/**
+ * @author LeonKeiran
+ * @description 插件消息批量发送器，同一tick内发给同一玩家同一频道的消息合并为一个帧，在tick结束时发送
+ * 消息体写入对象池中的缓冲区，缓冲区按1KB、8KB与帧上限分级，从最小的一级开始按需扩容，超过阈值的帧使用Deflate压缩，接收方使用 {@link PluginMessageDecoder} 解码
+ * Folia上由玩家所在区域的线程在下一次调度时发送
+ * @date 2026/10/17 22:40
+ */
+public class PluginMessageBatcher implements Listener {
+    /**
+     * 默认压缩阈值，消息体达到该长度时尝试压缩
+     */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 256;
+    // 单个帧的消息体上限，加上帧头不超过Bukkit允许的插件消息长度
+    private static final int MAX_BODY_SIZE = Messenger.MAX_MESSAGE_SIZE - FrameCodec.MAX_HEADER_SIZE;
+    private final Plugin plugin;
+    private final RegionDispatcher dispatcher;
+    private final int compressionThreshold;
+    // 分级缓冲区大小，大部分批次只有几条短消息，从小缓冲区开始按需扩容
+    private static final int SMALL_BUFFER_SIZE = 1024;
+    private static final int MEDIUM_BUFFER_SIZE = 8 * 1024;
+    private final BufferPool smallPool = new BufferPool(SMALL_BUFFER_SIZE, 1024);
+    private final BufferPool mediumPool = new BufferPool(MEDIUM_BUFFER_SIZE, 128);
+    private final BufferPool largePool = new BufferPool(MAX_BODY_SIZE, 16);
+    private final Map<BatchKey, Batch> batches = new ConcurrentHashMap<>();
+    private final Queue<Batch> dirty = new ConcurrentLinkedQueue<>();
+    // 压缩器，Folia上多个区域线程同时发送，每次发送时从这里取出一个独占使用
+    private final Queue<Encoder> encoders = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 构造函数，使用默认压缩阈值
+     *
+     * @param plugin 插件实例
+     */
+    public PluginMessageBatcher(Plugin plugin) {
+        this(plugin, DEFAULT_COMPRESSION_THRESHOLD);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param plugin               插件实例
+     * @param compressionThreshold 压缩阈值，小于0时不压缩
+     */
+    public PluginMessageBatcher(Plugin plugin, int compressionThreshold) {
+        this(plugin, new RegionDispatcher(plugin), compressionThreshold);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param plugin               插件实例
+     * @param dispatcher           区域线程调度器
+     * @param compressionThreshold 压缩阈值，小于0时不压缩
+     */
+    public PluginMessageBatcher(Plugin plugin, RegionDispatcher dispatcher, int compressionThreshold) {
+        this.plugin = plugin;
+        this.dispatcher = dispatcher;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * 批量发送键
+     *
+     * @param playerId 玩家UUID
+     * @param channel  频道
+     */
+    private record BatchKey(UUID playerId, String channel) {
+    }
+
+    /**
+     * 压缩器与压缩缓冲区，同一时间只被一个线程使用
+     */
+    private static final class Encoder {
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final byte[] compressed = new byte[MAX_BODY_SIZE];
+    }
+
+    /**
+     * 单个玩家单个频道的待发送消息，字段由对象锁保护
+     */
+    private static final class Batch {
+        private final String channel;
+        private volatile Player player;
+        private final List<ByteBuffer> full = new ArrayList<>(1);
+        private ByteBuffer body;
+        private boolean queued;
+
+        private Batch(Player player, String channel) {
+            this.player = player;
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * 注册tick结束与玩家退出监听
+     */
+    public void start() {
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * 发送所有待发送消息并注销监听
+     */
+    public void close() {
+        flush();
+        HandlerList.unregisterAll(this);
+        batches.clear();
+        Encoder encoder;
+        while ((encoder = encoders.poll()) != null) {
+            encoder.deflater.end();
+        }
+    }
+
+    /**
+     * 将消息加入玩家的待发送帧，可在任意线程调用
+     *
+     * @param player  目标玩家
+     * @param channel 频道，需要已注册为发送频道
+     * @param message 消息内容
+     */
+    public void queue(Player player, String channel, byte[] message) {
+        queue(player, channel, ByteBuffer.wrap(message));
+    }
+
+    /**
+     * 将消息加入玩家的待发送帧，可在任意线程调用，消息内容在调用期间复制
+     *
+     * @param player  目标玩家
+     * @param channel 频道，需要已注册为发送频道
+     * @param message 消息内容，读取 position 到 limit 之间的数据，不修改其位置
+     */
+    public void queue(Player player, String channel, ByteBuffer message) {
+        int length = message.remaining();
+        int size = FrameCodec.varIntSize(length) + length;
+        if (size > MAX_BODY_SIZE) {
+            throw new IllegalArgumentException("插件消息过长: " + length + " 字节");
+        }
+        Batch batch = batches.computeIfAbsent(new BatchKey(player.getUniqueId(), channel), key -> new Batch(player, channel));
+        boolean enqueue;
+        synchronized (batch) {
+            batch.player = player;
+            if (batch.body == null) {
+                batch.body = acquire(size);
+            } else if (batch.body.remaining() < size) {
+                int required = batch.body.position() + size;
+                if (required <= MAX_BODY_SIZE) {
+                    // 扩容到能容纳新消息的下一级缓冲区，仍然合并为一个帧
+                    ByteBuffer grown = acquire(required);
+                    grown.put(batch.body.flip());
+                    release(batch.body);
+                    batch.body = grown;
+                } else {
+                    batch.full.add(batch.body);
+                    batch.body = acquire(size);
+                }
+            }
+            FrameCodec.writeVarInt(batch.body, length);
+            batch.body.put(message.duplicate());
+            enqueue = !batch.queued;
+            batch.queued = true;
+        }
+        if (!enqueue) {
+            return;
+        }
+        if (RegionDispatcher.isFolia()) {
+            dispatcher.schedule(player, () -> flush(batch));
+        } else {
+            dirty.add(batch);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        flush();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        batches.keySet().removeIf(key -> key.playerId().equals(event.getPlayer().getUniqueId()));
+    }
+
+    /**
+     * 发送所有待发送的帧，只能在主线程调用
+     */
+    public void flush() {
+        Batch batch;
+        while ((batch = dirty.poll()) != null) {
+            flush(batch);
+        }
+    }
+
+    /**
+     * 发送单个玩家单个频道的待发送帧，只能在拥有该玩家的线程调用
+     */
+    private void flush(Batch batch) {
+        List<ByteBuffer> bodies = new ArrayList<>(2);
+        synchronized (batch) {
+            batch.queued = false;
+            bodies.addAll(batch.full);
+            batch.full.clear();
+            if (batch.body != null) {
+                bodies.add(batch.body);
+                batch.body = null;
+            }
+        }
+        Player player = batch.player;
+        Encoder encoder = encoders.poll();
+        if (encoder == null) {
+            encoder = new Encoder();
+        }
+        try {
+            for (ByteBuffer body : bodies) {
+                if (player.isOnline()) {
+                    player.sendPluginMessage(plugin, batch.channel, encode(encoder, body.flip()));
+                }
+                release(body);
+            }
+        } finally {
+            encoders.offer(encoder);
+        }
+    }
+
+    private ByteBuffer acquire(int size) {
+        if (size <= SMALL_BUFFER_SIZE) {
+            return smallPool.acquire();
+        }
+        return size <= MEDIUM_BUFFER_SIZE ? mediumPool.acquire() : largePool.acquire();
+    }
+
+    private void release(ByteBuffer buffer) {
+        switch (buffer.capacity()) {
+            case SMALL_BUFFER_SIZE -> smallPool.release(buffer);
+            case MEDIUM_BUFFER_SIZE -> mediumPool.release(buffer);
+            default -> largePool.release(buffer);
+        }
+    }
+
+    private byte[] encode(Encoder encoder, ByteBuffer body) {
+        int length = body.remaining();
+        if (compressionThreshold >= 0 && length >= compressionThreshold) {
+            Deflater deflater = encoder.deflater;
+            byte[] compressed = encoder.compressed;
+            deflater.reset();
+            deflater.setInput(body.array(), body.arrayOffset() + body.position(), length);
+            deflater.finish();
+            int compressedLength = deflater.deflate(compressed, 0, compressed.length);
+            int headerLength = 1 + FrameCodec.varIntSize(length);
+            if (deflater.finished() && headerLength + compressedLength < 1 + length) {
+                ByteBuffer frame = ByteBuffer.allocate(headerLength + compressedLength);
+                frame.put((byte) FrameCodec.FLAG_COMPRESSED);
+                FrameCodec.writeVarInt(frame, length);
+                frame.put(compressed, 0, compressedLength);
+                return frame.array();
+            }
+        }
+        byte[] frame = new byte[1 + length];
+        body.get(frame, 1, length);
+        return frame;
+    }
+}
@@ -0,0 +1,63 @@
+package com.zeeyeh.nyt.messaging;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.logging.Level;
+
+/**
+ * @author LeonKeiran
+ * @description 插件消息解码器，将 {@link PluginMessageBatcher} 发送的帧拆分为单条消息
+ * @date 2026/10/17 22:40
+ */
+public class PluginMessageDecoder implements PluginMessageListener {
+    private final Plugin plugin;
+    private final Handler handler;
+
+    /**
+     * 单条消息处理函数
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * 处理单条消息，缓冲区只在调用期间有效
+         *
+         * @param channel 频道
+         * @param player  发送消息的连接对应的玩家
+         * @param message 只读的消息内容
+         */
+        void handle(String channel, Player player, ByteBuffer message);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param plugin  插件实例
+     * @param handler 单条消息处理函数
+     */
+    public PluginMessageDecoder(Plugin plugin, Handler handler) {
+        this.plugin = plugin;
+        this.handler = handler;
+    }
+
+    /**
+     * 注册为指定频道的接收者
+     *
+     * @param channel 频道
+     */
+    public void register(String channel) {
+        plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, channel, this);
+    }
+
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        try {
+            FrameCodec.decode(message, buffer -> handler.handle(channel, player, buffer));
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            plugin.getLogger().log(Level.WARNING, "频道 " + channel + " 收到无效的插件消息帧", e);
+        }
+    }
+}
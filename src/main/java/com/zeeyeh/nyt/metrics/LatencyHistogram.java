@@ -0,0 +1,141 @@
+package com.zeeyeh.nyt.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author LeonKeiran
+ * @description 无锁耗时直方图，按纳秒数的二进制位数分桶，记录只需要一次原子加法
+ * @date 2026/10/17 19:40
+ */
+public final class LatencyHistogram {
+    // 第i个桶记录耗时在 [2^(i-1), 2^i) 纳秒之间的次数
+    private static final int BUCKETS = 64;
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 记录从开始时间到现在的耗时，开始时间为0时表示统计未启用，不做记录
+     *
+     * @param startNanos {@link Metrics#start()} 返回的开始时间
+     */
+    public void stop(long startNanos) {
+        if (startNanos != 0L) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时，单位纳秒
+     */
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value)));
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /**
+     * 获取记录次数
+     *
+     * @return 记录次数
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * 获取平均耗时
+     *
+     * @return 平均耗时，单位纳秒
+     */
+    public double getMean() {
+        long total = count.sum();
+        return total == 0 ? 0D : (double) totalNanos.sum() / total;
+    }
+
+    /**
+     * 获取最大耗时
+     *
+     * @return 最大耗时，单位纳秒
+     */
+    public long getMax() {
+        return maxNanos.get();
+    }
+
+    /**
+     * 获取耗时分位数，结果为所在桶的上界，误差不超过一倍
+     *
+     * @param quantile 分位，取值 0 到 1
+     * @return 分位耗时，单位纳秒
+     */
+    public long getPercentile(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && snapshot[i] > 0) {
+                return i == 0 ? 0L : Math.min(getMax(), (1L << i) - 1);
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * 获取直方图名称
+     *
+     * @return 名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 清空记录
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0L);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    /**
+     * 转换为用于序列化的映射
+     *
+     * @return 统计映射
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", getCount());
+        map.put("meanNanos", Math.round(getMean()));
+        map.put("p50Nanos", getPercentile(0.5));
+        map.put("p99Nanos", getPercentile(0.99));
+        map.put("maxNanos", getMax());
+        return map;
+    }
+}
@@ -0,0 +1,212 @@
+package com.zeeyeh.nyt.metrics;
+
+import com.zeeyeh.nyt.util.LruCache;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author LeonKeiran
+ * @description 运行时统计，记录消息发送次数、翻译与颜色格式化耗时、缓存命中率与缺失的语言键
+ * 未启用时每个记录点只有一次volatile读取
+ * @date 2026/10/17 19:40
+ */
+public final class Metrics {
+    // 缺失语言键最多记录的数量，防止动态拼接的键占满内存
+    private static final int MAX_MISSING_KEYS = 256;
+    public static final LatencyHistogram TRANSLATE = new LatencyHistogram("translate");
+    public static final LatencyHistogram COLORIZE = new LatencyHistogram("colorize");
+    private static final LongAdder[] COUNTERS = new LongAdder[Counter.values().length];
+    private static final LongAdder MISSING_KEY_COUNT = new LongAdder();
+    private static final Map<String, LongAdder> MISSING_KEYS = new ConcurrentHashMap<>();
+    private static final Map<String, LruCache<?, ?>> CACHES = new ConcurrentHashMap<>();
+    private static volatile boolean enabled;
+
+    static {
+        for (int i = 0; i < COUNTERS.length; i++) {
+            COUNTERS[i] = new LongAdder();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * 消息发送计数项
+     */
+    public enum Counter {
+        SEND,
+        BROADCAST,
+        TITLE,
+        ACTION_BAR,
+        BOSS_BAR,
+        PLUGIN_MESSAGE
+    }
+
+    /**
+     * 判断统计是否启用
+     *
+     * @return 是否启用
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 设置统计是否启用
+     *
+     * @param enabled 是否启用
+     */
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * 增加计数
+     *
+     * @param counter 计数项
+     */
+    public static void increment(Counter counter) {
+        if (enabled) {
+            COUNTERS[counter.ordinal()].increment();
+        }
+    }
+
+    /**
+     * 获取计时开始时间，与 {@link LatencyHistogram#stop(long)} 配合使用
+     *
+     * @return 开始时间，未启用时返回0
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * 记录一次缺失的语言键
+     *
+     * @param language 语言名称
+     * @param key      语言键
+     */
+    public static void missingKey(String language, String key) {
+        if (!enabled) {
+            return;
+        }
+        MISSING_KEY_COUNT.increment();
+        String id = language + ":" + key;
+        LongAdder adder = MISSING_KEYS.get(id);
+        if (adder == null && MISSING_KEYS.size() < MAX_MISSING_KEYS) {
+            adder = MISSING_KEYS.computeIfAbsent(id, ignored -> new LongAdder());
+        }
+        if (adder != null) {
+            adder.increment();
+        }
+    }
+
+    /**
+     * 注册需要统计命中率的缓存
+     *
+     * @param name  缓存名称
+     * @param cache 缓存
+     */
+    public static void registerCache(String name, LruCache<?, ?> cache) {
+        CACHES.put(name, cache);
+    }
+
+    /**
+     * 获取计数
+     *
+     * @param counter 计数项
+     * @return 计数
+     */
+    public static long getCount(Counter counter) {
+        return COUNTERS[counter.ordinal()].sum();
+    }
+
+    /**
+     * 获取缺失语言键的总次数
+     *
+     * @return 缺失次数
+     */
+    public static long getMissingKeyCount() {
+        return MISSING_KEY_COUNT.sum();
+    }
+
+    /**
+     * 获取缺失次数最多的语言键
+     *
+     * @param limit 数量
+     * @return 语言键与缺失次数，按次数从多到少排列
+     */
+    public static Map<String, Long> getTopMissingKeys(int limit) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        MISSING_KEYS.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    /**
+     * 获取已注册的缓存
+     *
+     * @return 缓存名称与缓存
+     */
+    public static Map<String, LruCache<?, ?>> getCaches() {
+        return Map.copyOf(CACHES);
+    }
+
+    /**
+     * 清空所有统计数据，缓存自身的命中计数不受影响
+     */
+    public static void reset() {
+        for (LongAdder counter : COUNTERS) {
+            counter.reset();
+        }
+        TRANSLATE.reset();
+        COLORIZE.reset();
+        MISSING_KEY_COUNT.reset();
+        MISSING_KEYS.clear();
+    }
+
+    /**
+     * 生成统计快照，用于JSON输出
+     *
+     * @return 统计快照
+     */
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("timestamp", System.currentTimeMillis());
+        snapshot.put("enabled", enabled);
+        Map<Counter, Long> counters = new EnumMap<>(Counter.class);
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, getCount(counter));
+        }
+        snapshot.put("messenger", counters);
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put(TRANSLATE.getName(), TRANSLATE.toMap());
+        latency.put(COLORIZE.getName(), COLORIZE.toMap());
+        snapshot.put("latency", latency);
+        Map<String, Object> caches = new LinkedHashMap<>();
+        CACHES.forEach((name, cache) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("size", cache.size());
+            stats.put("maximumSize", cache.getMaximumSize());
+            stats.put("hits", cache.getHitCount());
+            stats.put("misses", cache.getMissCount());
+            stats.put("evictions", cache.getEvictionCount());
+            stats.put("hitRate", cache.getHitRate());
+            caches.put(name, stats);
+        });
+        snapshot.put("caches", caches);
+        Map<String, Object> missing = new LinkedHashMap<>();
+        missing.put("count", getMissingKeyCount());
+        missing.put("top", getTopMissingKeys(20));
+        snapshot.put("missingKeys", missing);
+        return snapshot;
+    }
+}
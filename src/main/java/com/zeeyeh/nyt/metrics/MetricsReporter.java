@@ -0,0 +1,86 @@
+package com.zeeyeh.nyt.metrics;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONWriter;
+import com.zeeyeh.nyt.util.FileUtil;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * @author LeonKeiran
+ * @description 统计输出器，定时在异步线程中将统计快照写入插件目录下的JSON文件
+ * @date 2026/10/17 19:40
+ */
+public class MetricsReporter {
+    private final Plugin plugin;
+    private final Path file;
+    private ScheduledTask task;
+
+    /**
+     * 构造函数，输出到插件目录下的metrics.json
+     *
+     * @param plugin 插件实例
+     */
+    public MetricsReporter(Plugin plugin) {
+        this(plugin, plugin.getDataFolder().toPath().resolve("metrics.json"));
+    }
+
+    /**
+     * 构造函数，指定输出文件
+     *
+     * @param plugin 插件实例
+     * @param file   输出文件
+     */
+    public MetricsReporter(Plugin plugin, Path file) {
+        this.plugin = plugin;
+        this.file = file;
+    }
+
+    /**
+     * 启动定时输出
+     *
+     * @param intervalSeconds 输出间隔，单位秒
+     */
+    public synchronized void start(long intervalSeconds) {
+        stop();
+        long interval = Math.max(1L, intervalSeconds);
+        task = plugin.getServer().getAsyncScheduler().runAtFixedRate(plugin, scheduled -> dumpQuietly(),
+                interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 停止定时输出
+     */
+    public synchronized void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * 立即输出一次统计快照，先写入临时文件再替换，读取方不会读到写了一半的文件
+     *
+     * @return 输出文件
+     * @throws IOException 如果写入失败
+     */
+    public Path dump() throws IOException {
+        byte[] json = JSON.toJSONString(Metrics.snapshot(), JSONWriter.Feature.PrettyFormat).getBytes(StandardCharsets.UTF_8);
+        FileUtil.writeAtomically(file, json, FileUtil.SyncMode.NONE);
+        return file;
+    }
+
+    private void dumpQuietly() {
+        try {
+            dump();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "统计数据输出失败", e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.zeeyeh.nyt.util;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author LeonKeiran
+ * @description 固定大小的ByteBuffer对象池，归还的缓冲区会被清空后复用
+ * @date 2026/10/17 22:40
+ */
+public final class BufferPool {
+    private final int bufferSize;
+    private final int maxPooled;
+    private final Queue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    /**
+     * 构造函数
+     *
+     * @param bufferSize 缓冲区大小
+     * @param maxPooled  最多保留的空闲缓冲区数量
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("缓冲区大小必须大于0");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * 获取一个已清空的缓冲区
+     *
+     * @return 缓冲区
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = pool.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(bufferSize);
+        }
+        pooled.decrementAndGet();
+        return buffer.clear();
+    }
+
+    /**
+     * 归还缓冲区，归还后调用方不能再使用
+     *
+     * @param buffer 缓冲区
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferSize || buffer.isReadOnly()) {
+            return;
+        }
+        if (pooled.incrementAndGet() > maxPooled) {
+            pooled.decrementAndGet();
+            return;
+        }
+        pool.offer(buffer);
+    }
+
+    /**
+     * 获取缓冲区大小
+     *
+     * @return 缓冲区大小
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * 获取空闲缓冲区数量
+     *
+     * @return 空闲数量
+     */
+    public int getPooledCount() {
+        return pooled.get();
+    }
+}
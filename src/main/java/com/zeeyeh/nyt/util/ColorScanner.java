@@ -0,0 +1,260 @@
+package com.zeeyeh.nyt.util;
+
+import org.bukkit.ChatColor;
+
+/**
+ * @author LeonKeiran
+ * @description 单次扫描的颜色解析器，同时处理颜色替代字符、16进制颜色与渐变颜色表达式，不使用正则
+ * @date 2026/10/17 11:05
+ */
+public final class ColorScanner {
+    private static final boolean[] COLOR_CODES = new boolean[128];
+    private static final int HEX_TAG_LENGTH = 9;
+
+    static {
+        for (char c : "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx".toCharArray()) {
+            COLOR_CODES[c] = true;
+        }
+    }
+
+    private ColorScanner() {
+    }
+
+    /**
+     * 扫描结果接收器，扫描过程中按顺序回调各类片段
+     */
+    public interface Sink {
+        /**
+         * 普通文本
+         *
+         * @param source 原始文本
+         * @param start  起始位置（包含）
+         * @param end    结束位置（不包含）
+         */
+        void text(CharSequence source, int start, int end);
+
+        /**
+         * 传统颜色代码
+         *
+         * @param code 颜色代码，已转为小写
+         */
+        void code(char code);
+
+        /**
+         * 16进制颜色
+         *
+         * @param source 原始文本
+         * @param offset 6位颜色值的起始位置
+         */
+        void hex(CharSequence source, int offset);
+
+        /**
+         * 渐变颜色
+         *
+         * @param source     原始文本
+         * @param start      渐变文本起始位置（包含）
+         * @param end        渐变文本结束位置（不包含）
+         * @param startColor 渐变开始颜色，RGB整数
+         * @param endColor   渐变结束颜色，RGB整数
+         */
+        void gradient(CharSequence source, int start, int end, int startColor, int endColor);
+    }
+
+    /**
+     * 直接格式化文本，结果写入一个预分配的缓冲区
+     * 文本中不包含需要处理的字符时直接返回原文本
+     *
+     * @param mode      解析模式
+     * @param colorChar 颜色替代字符
+     * @param message   文本内容
+     * @return 格式化后的文本
+     */
+    public static String render(ColorTemplate.Mode mode, char colorChar, String message) {
+        if (!requiresScan(mode, colorChar, message)) {
+            return message;
+        }
+        int length = message.length();
+        StringBuilder builder = new StringBuilder(length + (length >> 1) + 16);
+        scan(mode, colorChar, message, new LegacySink(builder, colorChar));
+        return builder.toString();
+    }
+
+    /**
+     * 判断文本是否包含需要处理的字符
+     *
+     * @param mode      解析模式
+     * @param colorChar 颜色替代字符
+     * @param message   文本内容
+     * @return 是否需要扫描
+     */
+    public static boolean requiresScan(ColorTemplate.Mode mode, char colorChar, String message) {
+        return switch (mode) {
+            case LEGACY -> message.indexOf(colorChar) >= 0;
+            case HEX_TAGS -> message.indexOf('[') >= 0;
+            case HEX -> message.indexOf(colorChar) >= 0 || message.indexOf('[') >= 0;
+        };
+    }
+
+    /**
+     * 扫描文本，按顺序将片段回调给接收器
+     *
+     * @param mode      解析模式
+     * @param colorChar 颜色替代字符
+     * @param message   文本内容
+     * @param sink      结果接收器
+     */
+    public static void scan(ColorTemplate.Mode mode, char colorChar, CharSequence message, Sink sink) {
+        int length = message.length();
+        if (mode == ColorTemplate.Mode.HEX && isGradient(message)) {
+            sink.gradient(message, HEX_TAG_LENGTH, length - HEX_TAG_LENGTH,
+                    parseHex(message, 2), parseHex(message, length - HEX_TAG_LENGTH + 2));
+            return;
+        }
+        boolean codes = mode != ColorTemplate.Mode.HEX_TAGS;
+        boolean tags = mode != ColorTemplate.Mode.LEGACY;
+        int literalStart = 0;
+        int i = 0;
+        while (i < length) {
+            char c = message.charAt(i);
+            if (codes && c == colorChar && i + 1 < length && isColorCode(message.charAt(i + 1))) {
+                if (i > literalStart) {
+                    sink.text(message, literalStart, i);
+                }
+                sink.code(Character.toLowerCase(message.charAt(i + 1)));
+                i += 2;
+                literalStart = i;
+            } else if (tags && c == '[' && isHexTag(message, i)) {
+                if (i > literalStart) {
+                    sink.text(message, literalStart, i);
+                }
+                sink.hex(message, i + 2);
+                i += HEX_TAG_LENGTH;
+                literalStart = i;
+            } else {
+                i++;
+            }
+        }
+        if (literalStart < length) {
+            sink.text(message, literalStart, length);
+        }
+    }
+
+    /**
+     * 判断字符是否为有效的颜色代码
+     *
+     * @param c 字符
+     * @return 是否为有效的颜色代码
+     */
+    public static boolean isColorCode(char c) {
+        return c < COLOR_CODES.length && COLOR_CODES[c];
+    }
+
+    /**
+     * 解析6位16进制颜色
+     *
+     * @param source 文本
+     * @param offset 起始位置
+     * @return RGB整数，格式无效时返回-1
+     */
+    public static int parseHex(CharSequence source, int offset) {
+        if (offset < 0 || offset + 6 > source.length()) {
+            return -1;
+        }
+        int rgb = 0;
+        for (int i = offset; i < offset + 6; i++) {
+            int digit = hexValue(source.charAt(i));
+            if (digit < 0) {
+                return -1;
+            }
+            rgb = (rgb << 4) | digit;
+        }
+        return rgb;
+    }
+
+    /**
+     * 获取16进制字符对应的数值，仅接受ASCII字符
+     */
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * 判断指定位置是否为 [#RRGGBB] 格式的颜色标签
+     */
+    private static boolean isHexTag(CharSequence source, int offset) {
+        return offset + HEX_TAG_LENGTH <= source.length()
+                && source.charAt(offset) == '['
+                && source.charAt(offset + 1) == '#'
+                && source.charAt(offset + HEX_TAG_LENGTH - 1) == ']'
+                && parseHex(source, offset + 2) >= 0;
+    }
+
+    /**
+     * 判断整段文本是否为 [#RRGGBB]文本[#RRGGBB] 格式的渐变表达式，文本不能跨行
+     */
+    private static boolean isGradient(CharSequence source) {
+        int length = source.length();
+        if (length <= HEX_TAG_LENGTH * 2 || !isHexTag(source, 0) || !isHexTag(source, length - HEX_TAG_LENGTH)) {
+            return false;
+        }
+        for (int i = HEX_TAG_LENGTH; i < length - HEX_TAG_LENGTH; i++) {
+            char c = source.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 将扫描结果写入缓冲区，生成带有 § 颜色代码的文本
+     */
+    public static class LegacySink implements Sink {
+        private final StringBuilder builder;
+        private final char colorChar;
+
+        /**
+         * 构造函数
+         *
+         * @param builder   输出缓冲区
+         * @param colorChar 颜色替代字符，用于提取渐变文本中的格式代码
+         */
+        public LegacySink(StringBuilder builder, char colorChar) {
+            this.builder = builder;
+            this.colorChar = colorChar;
+        }
+
+        @Override
+        public void text(CharSequence source, int start, int end) {
+            builder.append(source, start, end);
+        }
+
+        @Override
+        public void code(char code) {
+            builder.append(ChatColor.COLOR_CHAR).append(code);
+        }
+
+        @Override
+        public void hex(CharSequence source, int offset) {
+            builder.append(ChatColor.COLOR_CHAR).append('x');
+            for (int i = offset; i < offset + 6; i++) {
+                builder.append(ChatColor.COLOR_CHAR).append(source.charAt(i));
+            }
+        }
+
+        @Override
+        public void gradient(CharSequence source, int start, int end, int startColor, int endColor) {
+            GradientEngine.render(builder, source, start, end, colorChar,
+                    GradientEngine.palette(GradientEngine.Interpolation.RGB, startColor, endColor));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.zeeyeh.nyt.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author LeonKeiran
+ * @description 预编译颜色模板，消息只解析一次，拆分为不可变的片段列表
+ * @date 2026/10/17 10:20
+ */
+public final class ColorTemplate {
+    private final String source;
+    private final char colorChar;
+    private final List<Segment> segments;
+    private final String text;
+
+    private ColorTemplate(String source, char colorChar, List<Segment> segments) {
+        this.source = source;
+        this.colorChar = colorChar;
+        this.segments = List.copyOf(segments);
+        this.text = render();
+    }
+
+    /**
+     * 解析模式
+     */
+    public enum Mode {
+        /**
+         * 仅处理颜色替代字符
+         */
+        LEGACY,
+        /**
+         * 处理颜色替代字符、16进制颜色与渐变颜色表达式
+         */
+        HEX,
+        /**
+         * 仅处理16进制颜色
+         */
+        HEX_TAGS
+    }
+
+    /**
+     * 模板缓存键
+     *
+     * @param mode      解析模式
+     * @param colorChar 颜色替代字符
+     * @param message   原始文本
+     */
+    public record Key(Mode mode, char colorChar, String message) {
+    }
+
+    /**
+     * 模板片段
+     */
+    public sealed interface Segment permits Text, Code, Hex, Gradient {
+    }
+
+    /**
+     * 普通文本片段
+     *
+     * @param text 文本内容
+     */
+    public record Text(String text) implements Segment {
+    }
+
+    /**
+     * 传统颜色代码片段
+     *
+     * @param code 颜色代码，已转为小写
+     */
+    public record Code(char code) implements Segment {
+    }
+
+    /**
+     * 16进制颜色片段
+     *
+     * @param color 6位16进制颜色，保留原始大小写
+     */
+    public record Hex(String color) implements Segment {
+    }
+
+    /**
+     * 渐变颜色片段
+     *
+     * @param content    渐变文本
+     * @param startColor 渐变开始颜色，RGB整数
+     * @param endColor   渐变结束颜色，RGB整数
+     */
+    public record Gradient(String content, int startColor, int endColor) implements Segment {
+    }
+
+    /**
+     * 解析文本为颜色模板
+     *
+     * @param key 模板缓存键
+     * @return 颜色模板
+     */
+    public static ColorTemplate compile(Key key) {
+        return compile(key.mode(), key.colorChar(), key.message());
+    }
+
+    /**
+     * 解析文本为颜色模板
+     *
+     * @param mode      解析模式
+     * @param colorChar 颜色替代字符
+     * @param message   文本内容
+     * @return 颜色模板
+     */
+    public static ColorTemplate compile(Mode mode, char colorChar, String message) {
+        List<Segment> segments = new ArrayList<>();
+        ColorScanner.scan(mode, colorChar, message, new ColorScanner.Sink() {
+            @Override
+            public void text(CharSequence source, int start, int end) {
+                segments.add(new Text(source.subSequence(start, end).toString()));
+            }
+
+            @Override
+            public void code(char code) {
+                segments.add(new Code(code));
+            }
+
+            @Override
+            public void hex(CharSequence source, int offset) {
+                segments.add(new Hex(source.subSequence(offset, offset + 6).toString()));
+            }
+
+            @Override
+            public void gradient(CharSequence source, int start, int end, int startColor, int endColor) {
+                segments.add(new Gradient(source.subSequence(start, end).toString(), startColor, endColor));
+            }
+        });
+        return new ColorTemplate(message, colorChar, segments);
+    }
+
+    /**
+     * 获取原始文本
+     *
+     * @return 原始文本
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * 获取模板片段列表
+     *
+     * @return 不可变片段列表
+     */
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * 获取格式化后的文本，在编译时已生成
+     *
+     * @return 格式化后的文本
+     */
+    public String text() {
+        return text;
+    }
+
+    /**
+     * 按片段顺序重放到接收器中，可用于生成其他格式的输出
+     *
+     * @param sink 结果接收器
+     */
+    public void replay(ColorScanner.Sink sink) {
+        for (Segment segment : segments) {
+            if (segment instanceof Text text) {
+                sink.text(text.text(), 0, text.text().length());
+            } else if (segment instanceof Code code) {
+                sink.code(code.code());
+            } else if (segment instanceof Hex hex) {
+                sink.hex(hex.color(), 0);
+            } else if (segment instanceof Gradient gradient) {
+                sink.gradient(gradient.content(), 0, gradient.content().length(), gradient.startColor(), gradient.endColor());
+            }
+        }
+    }
+
+    private String render() {
+        if (segments.isEmpty() || (segments.size() == 1 && segments.get(0) instanceof Text)) {
+            return source;
+        }
+        StringBuilder builder = new StringBuilder(source.length() + (source.length() >> 1) + 16);
+        replay(new ColorScanner.LegacySink(builder, colorChar));
+        return builder.toString();
+    }
+}
@@ -2,10 +2,7 @@ package com.zeeyeh.nyt.util;
 
 import com.zeeyeh.nyt.factory.ColorFactory;
 import com.zeeyeh.nyt.factory.ColorFactoryWrapper;
-import org.bukkit.ChatColor;
-
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import com.zeeyeh.nyt.metrics.Metrics;
 
 /**
  * @author LeonKeiran
@@ -13,6 +10,39 @@ import java.util.regex.Pattern;
  * @date 2025/3/6 20:10
  */
 public class ColorUtil {
+    // 按CPU核数分段，Folia与异步聊天线程同时格式化时不竞争同一把锁；二次准入避免玩家名、数字等一次性文本挤出常用格式
+    private static final LruCache<ColorTemplate.Key, ColorTemplate> TEMPLATE_CACHE =
+            new LruCache<>(2048, Runtime.getRuntime().availableProcessors() * 2, true);
+    private static final LruCache<GradientKey, String> GRADIENT_CACHE = new LruCache<>(512);
+
+    /**
+     * 默认残余格式处理工厂
+     */
+    private static final ColorFactory<StringBuilder, String, ColorFactoryWrapper> DEFAULT_FORMAT_FACTORY = (origin, text) -> {
+        if (text.contains("&k")) {
+            origin.append("&k");
+            text = text.replace("&k", "");
+        }
+        if (text.contains("&m")) {
+            origin.append("&m");
+            text = text.replace("&m", "");
+        }
+        if (text.contains("&n")) {
+            origin.append("&n");
+            text = text.replace("&n", "");
+        }
+        if (text.contains("&l")) {
+            origin.append("&l");
+            text = text.replace("&l", "");
+        }
+        return new ColorFactoryWrapper(origin, text);
+    };
+
+    /**
+     * 渐变色缓存键
+     */
+    private record GradientKey(String message, String startColor, String endColor, boolean isBold) {
+    }
 
     /**
      * 格式化文本颜色
@@ -40,30 +70,17 @@ public class ColorUtil {
      *
      * @param colorChar 颜色替代字符
      * @param message   文本内容
-     * @param hex       是否支持16进制渐变颜色表达式
+     * @param hex       是否支持16进制颜色及渐变颜色表达式
      */
     public static String translate(char colorChar, String message, boolean hex) {
-        if (hex) {
-            Pattern pattern = Pattern.compile("^\\[#([A-z0-9]+)](.*)+\\[#([A-z0-9]+)]$");
-            Matcher matcher = pattern.matcher(message);
-            if (matcher.matches()) {
-                String javaVersion = System.getProperty("java.version");
-                if (!javaVersion.contains("17")) {
-                    throw new RuntimeException("Current Java version " + javaVersion + " is not supported. The Java version must be 14+");
-                } else {
-                    while (matcher.find()) {
-                        String startColor = matcher.group(1);
-                        String content = matcher.group(2);
-                        String endColor = matcher.group(3);
-                        message = translateHex(toGradient(content, startColor, endColor, false));
-                    }
-                }
-            }
+        ColorTemplate.Mode mode = hex ? ColorTemplate.Mode.HEX : ColorTemplate.Mode.LEGACY;
+        if (!ColorScanner.requiresScan(mode, colorChar, message)) {
+            return message;
         }
-        message = ChatColor.translateAlternateColorCodes(
-                colorChar, message
-        );
-        return message;
+        long start = Metrics.start();
+        String text = compile(mode, colorChar, message).text();
+        Metrics.COLORIZE.stop(start);
+        return text;
     }
 
     /**
@@ -72,19 +89,43 @@ public class ColorUtil {
      * @param message 消息文本
      */
     public static String translateHex(String message) {
-        Pattern pattern = Pattern.compile("\\[#([A-Fa-f0-9]{6})]");
-        Matcher matcher = pattern.matcher(message);
-        StringBuilder buffer = new StringBuilder();
-        while (matcher.find()) {
-            String color = matcher.group(1);
-            StringBuilder replacement = new StringBuilder(Character.toString(167)).append("x");
-            for (int i = 0; i < color.length(); i++) {
-                replacement.append(Character.toString(167)).append(color.charAt(i));
-            }
-            matcher.appendReplacement(buffer, replacement.toString());
+        if (!ColorScanner.requiresScan(ColorTemplate.Mode.HEX_TAGS, '&', message)) {
+            return message;
         }
-        matcher.appendTail(buffer);
-        return buffer.toString();
+        long start = Metrics.start();
+        String text = compile(ColorTemplate.Mode.HEX_TAGS, '&', message).text();
+        Metrics.COLORIZE.stop(start);
+        return text;
+    }
+
+    /**
+     * 获取预编译的颜色模板，重复出现的文本只解析一次，只出现一次的文本解析后不进入缓存
+     *
+     * @param mode      解析模式
+     * @param colorChar 颜色替代字符
+     * @param message   文本内容
+     * @return 颜色模板
+     */
+    public static ColorTemplate compile(ColorTemplate.Mode mode, char colorChar, String message) {
+        return TEMPLATE_CACHE.get(new ColorTemplate.Key(mode, colorChar, message), ColorTemplate::compile);
+    }
+
+    /**
+     * 获取颜色模板缓存，用于查看命中率等统计数据
+     *
+     * @return 颜色模板缓存
+     */
+    public static LruCache<ColorTemplate.Key, ColorTemplate> getTemplateCache() {
+        return TEMPLATE_CACHE;
+    }
+
+    /**
+     * 获取渐变色缓存，用于查看命中率等统计数据
+     *
+     * @return 渐变色缓存
+     */
+    public static LruCache<?, String> getGradientCache() {
+        return GRADIENT_CACHE;
     }
 
     /**
@@ -96,70 +137,44 @@ public class ColorUtil {
      * @param isBold     是否加粗
      */
     public static String toGradient(String message, String startColor, String endColor, boolean isBold) {
-        return toGradient(message, startColor, endColor, isBold, (origin, text) -> {
-            if (text.contains("&k")) {
-                origin.append("&k");
-                text = text.replace("&k", "");
-            }
-            if (text.contains("&m")) {
-                origin.append("&m");
-                text = text.replace("&m", "");
-            }
-            if (text.contains("&n")) {
-                origin.append("&n");
-                text = text.replace("&n", "");
-            }
-            if (text.contains("&l")) {
-                origin.append("&l");
-                text = text.replace("&l", "");
-            }
-            return new ColorFactoryWrapper(origin, text);
-        });
+        return GRADIENT_CACHE.get(new GradientKey(message, startColor, endColor, isBold),
+                key -> toGradient(key.message(), key.startColor(), key.endColor(), key.isBold(), DEFAULT_FORMAT_FACTORY));
     }
 
     /**
-     * 格式化渐变色文本
+     * 格式化多节点渐变色文本，直接生成 §x§r§r§g§g§b§b 格式
      *
-     * @param message    消息文本
-     * @param startColor 渐变开始颜色
-     * @param endColor   渐变结束颜色
-     * @param isBold     是否加粗
-     * @param func       残余格式处理工厂
+     * @param message 消息文本，可包含 &l 等格式代码
+     * @param mode    插值方式
+     * @param colors  渐变颜色节点，格式为 RRGGBB 或 #RRGGBB
      */
-    public static String toGradient(String message, String startColor, String endColor, boolean isBold, ColorFactory<StringBuilder, String, ColorFactoryWrapper> func) {
-        StringBuilder result = new StringBuilder();
-        for (int i = 0; i < message.length(); i++) {
-            int progress = i / (message.length() - 1);
-            String color = formatColor(startColor, endColor, progress);
-            result.append("[#").append(color).append("]");
-            if (isBold) {
-                result.append("&l");
-            }
-            ColorFactoryWrapper cfw = func.apply(result, message);
-            result = cfw.text();
-            message = cfw.content();
-            result.append(message.charAt(i));
+    public static String gradient(String message, GradientEngine.Interpolation mode, String... colors) {
+        int[] stops = new int[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            stops[i] = GradientEngine.parseColor(colors[i]);
         }
-        return result.toString();
+        StringBuilder builder = new StringBuilder(message.length() * 16);
+        GradientEngine.render(builder, message, 0, message.length(), '&', GradientEngine.palette(mode, stops));
+        return builder.toString();
     }
 
     /**
-     * 计算处理渐变色
+     * 格式化渐变色文本
      *
+     * @param message    消息文本
      * @param startColor 渐变开始颜色
      * @param endColor   渐变结束颜色
-     * @param progress   渐变进度
+     * @param isBold     是否加粗
+     * @param func       残余格式处理工厂，每段文本只调用一次，返回的格式会应用到每个字符
      */
-    private static String formatColor(String startColor, String endColor, float progress) {
-        int startRed = Integer.parseInt(startColor.substring(0, 2), 16);
-        int startGreen = Integer.parseInt(startColor.substring(2, 4), 16);
-        int startBlue = Integer.parseInt(startColor.substring(4, 6), 16);
-        int endRed = Integer.parseInt(endColor.substring(0, 2), 16);
-        int endGreen = Integer.parseInt(endColor.substring(2, 4), 16);
-        int endBlue = Integer.parseInt(endColor.substring(4, 6), 16);
-        int red = (int) (startRed + ((endRed - startRed) * progress));
-        int green = (int) (startGreen + ((endGreen - startGreen) * progress));
-        int blue = (int) (startBlue + ((endBlue - startBlue) * progress));
-        return String.format("%02x%02x%02x", red, green, blue);
+    public static String toGradient(String message, String startColor, String endColor, boolean isBold, ColorFactory<StringBuilder, String, ColorFactoryWrapper> func) {
+        ColorFactoryWrapper cfw = func.apply(new StringBuilder(isBold ? "&l" : ""), message);
+        StringBuilder prefix = cfw.text();
+        String content = cfw.content();
+        GradientEngine.Palette palette = GradientEngine.palette(GradientEngine.Interpolation.RGB,
+                GradientEngine.parseColor(startColor), GradientEngine.parseColor(endColor));
+        StringBuilder result = new StringBuilder(content.length() * (10 + prefix.length()));
+        GradientEngine.renderTags(result, content, 0, content.length(), palette, prefix);
+        return result.toString();
     }
 }
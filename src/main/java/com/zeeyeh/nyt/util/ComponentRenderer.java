@@ -0,0 +1,172 @@
+package com.zeeyeh.nyt.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+
+/**
+ * @author LeonKeiran
+ * @description Adventure组件渲染器，将 & 颜色代码、16进制颜色与渐变直接转换为组件，不经过 § 文本
+ * 组件不可变，按原始文本缓存，可以直接发送给任意数量的接收者
+ * @date 2026/10/17 22:10
+ */
+public final class ComponentRenderer {
+    // 与颜色模板缓存相同，分段加锁并只缓存重复出现的文本
+    private static final LruCache<ColorTemplate.Key, Component> COMPONENTS =
+            new LruCache<>(2048, Runtime.getRuntime().availableProcessors() * 2, true);
+    private static final NamedTextColor[] LEGACY_COLORS = {
+            NamedTextColor.BLACK, NamedTextColor.DARK_BLUE, NamedTextColor.DARK_GREEN, NamedTextColor.DARK_AQUA,
+            NamedTextColor.DARK_RED, NamedTextColor.DARK_PURPLE, NamedTextColor.GOLD, NamedTextColor.GRAY,
+            NamedTextColor.DARK_GRAY, NamedTextColor.BLUE, NamedTextColor.GREEN, NamedTextColor.AQUA,
+            NamedTextColor.RED, NamedTextColor.LIGHT_PURPLE, NamedTextColor.YELLOW, NamedTextColor.WHITE
+    };
+    // 与 GradientEngine 的格式标志位顺序一致
+    private static final TextDecoration[] DECORATIONS = {
+            TextDecoration.OBFUSCATED, TextDecoration.STRIKETHROUGH, TextDecoration.UNDERLINED,
+            TextDecoration.BOLD, TextDecoration.ITALIC
+    };
+
+    private ComponentRenderer() {
+    }
+
+    /**
+     * 将文本转换为组件，支持 & 颜色代码、16进制颜色与渐变颜色表达式
+     *
+     * @param message 文本内容
+     * @return 组件
+     */
+    public static Component render(String message) {
+        return render(ColorTemplate.Mode.HEX, '&', message);
+    }
+
+    /**
+     * 将文本转换为组件，相同文本只转换一次
+     *
+     * @param mode      解析模式
+     * @param colorChar 颜色替代字符
+     * @param message   文本内容
+     * @return 组件
+     */
+    public static Component render(ColorTemplate.Mode mode, char colorChar, String message) {
+        return COMPONENTS.get(new ColorTemplate.Key(mode, colorChar, message), key -> {
+            ComponentSink sink = new ComponentSink(colorChar);
+            ColorUtil.compile(key.mode(), key.colorChar(), key.message()).replay(sink);
+            return sink.build();
+        });
+    }
+
+    /**
+     * 获取组件缓存
+     *
+     * @return 组件缓存
+     */
+    public static LruCache<ColorTemplate.Key, Component> getComponentCache() {
+        return COMPONENTS;
+    }
+
+    /**
+     * 组件接收器，按传统颜色代码的规则维护当前样式：颜色代码会清除格式，&r 重置所有样式
+     */
+    public static class ComponentSink implements ColorScanner.Sink {
+        private final char colorChar;
+        private final TextComponent.Builder root = Component.text();
+        private Style style = Style.empty();
+        // &x&r&r&g&g&b&b 形式的16进制颜色，已读取的位数，-1表示不在读取中
+        private int legacyHexDigits = -1;
+        private int legacyHex;
+
+        /**
+         * 构造函数
+         *
+         * @param colorChar 颜色替代字符，用于提取渐变文本中的格式代码
+         */
+        public ComponentSink(char colorChar) {
+            this.colorChar = colorChar;
+        }
+
+        @Override
+        public void text(CharSequence source, int start, int end) {
+            legacyHexDigits = -1;
+            root.append(Component.text(source.subSequence(start, end).toString(), style));
+        }
+
+        @Override
+        public void code(char code) {
+            int digit = Character.digit(code, 16);
+            if (legacyHexDigits >= 0 && digit >= 0) {
+                legacyHex = (legacyHex << 4) | digit;
+                if (++legacyHexDigits == 6) {
+                    style = Style.style(TextColor.color(legacyHex));
+                    legacyHexDigits = -1;
+                }
+                return;
+            }
+            legacyHexDigits = -1;
+            if (digit >= 0) {
+                style = Style.style(LEGACY_COLORS[digit]);
+            } else if (code == 'x') {
+                legacyHexDigits = 0;
+                legacyHex = 0;
+            } else if (code == 'r') {
+                style = Style.empty();
+            } else {
+                int flag = GradientEngine.formatFlag(code);
+                if (flag != 0) {
+                    style = style.decorate(DECORATIONS[Integer.numberOfTrailingZeros(flag)]);
+                }
+            }
+        }
+
+        @Override
+        public void hex(CharSequence source, int offset) {
+            legacyHexDigits = -1;
+            style = Style.style(TextColor.color(ColorScanner.parseHex(source, offset)));
+        }
+
+        @Override
+        public void gradient(CharSequence source, int start, int end, int startColor, int endColor) {
+            legacyHexDigits = -1;
+            int visible = GradientEngine.visibleLength(source, start, end, colorChar);
+            if (visible == 0) {
+                return;
+            }
+            int[] colors = GradientEngine.palette(GradientEngine.Interpolation.RGB, startColor, endColor).colors(visible);
+            int index = 0;
+            Style base = Style.empty();
+            // 与 GradientEngine 一致，格式应用到重置代码之间的每个字符，颜色代码被忽略
+            for (int segmentStart = start; segmentStart < end; segmentStart += 2) {
+                int segmentEnd = GradientEngine.nextReset(source, segmentStart, end, colorChar);
+                int formats = GradientEngine.collectFormats(source, segmentStart, segmentEnd, colorChar);
+                base = Style.empty();
+                for (int i = 0; i < DECORATIONS.length; i++) {
+                    if ((formats & (1 << i)) != 0) {
+                        base = base.decorate(DECORATIONS[i]);
+                    }
+                }
+                for (int i = segmentStart; i < segmentEnd; ) {
+                    if (GradientEngine.isCode(source, i, segmentEnd, colorChar)) {
+                        i += 2;
+                        continue;
+                    }
+                    int next = Character.isHighSurrogate(source.charAt(i)) && i + 1 < segmentEnd ? i + 2 : i + 1;
+                    root.append(Component.text(source.subSequence(i, next).toString(), base.color(TextColor.color(colors[index++]))));
+                    i = next;
+                }
+                segmentStart = segmentEnd;
+            }
+            style = base.color(TextColor.color(colors[visible - 1]));
+        }
+
+        /**
+         * 生成组件
+         *
+         * @return 组件
+         */
+        public Component build() {
+            return root.build();
+        }
+    }
+}
@@ -2,6 +2,26 @@ package com.zeeyeh.nyt.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author LeonKeiran
@@ -9,6 +29,16 @@ import java.io.IOException;
  * @date 2025/3/6 20:09
  */
 public class FileUtil {
+    // 文件IO线程池，并行度限制在8以内，避免磁盘被过多线程争抢
+    private static final ForkJoinPool IO_POOL = new ForkJoinPool(Math.min(8, Runtime.getRuntime().availableProcessors()),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("nyt-file-io-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+    private static final DateTimeFormatter BACKUP_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
     /**
      * 删除指定的目录及其包含的所有文件和子目录。
      *
@@ -25,29 +55,301 @@ public class FileUtil {
         if (directory.isFile()) {
             return safeDelete(directory);
         }
-        // 尝试获取目录下的文件列表
-        String[] list = directory.list();
-        // 如果无法获取列表，视为删除成功
-        if (list == null) {
+        // 获取目录下的所有文件和子目录，如果无法获取列表，视为删除成功
+        File[] files = directory.listFiles();
+        if (files == null) {
             return true;
         }
-        // 如果目录下没有文件或子目录，则尝试安全删除该目录
-        if (list.length == 0) {
-            return safeDelete(directory);
-        }
-        // 获取目录下的所有文件和子目录，并递归删除它们
-        File[] files = directory.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (!deleteDirectory(file)) {
-                    return false;
-                }
+        // 递归删除目录下的所有文件和子目录
+        for (File file : files) {
+            if (!deleteDirectory(file)) {
+                return false;
             }
         }
         // 在删除所有文件和子目录后，尝试安全删除该目录
         return safeDelete(directory);
     }
 
+    /**
+     * 异步并行删除目录及其包含的所有文件和子目录。
+     * 文件在IO线程池中并行删除，目录在其内容删除后按由深到浅的顺序删除。
+     *
+     * @param directory 要删除的目录或文件。
+     * @param progress  进度回调，在IO线程中调用，可以为null。
+     * @return 删除的文件数量。
+     */
+    public static CompletableFuture<Long> deleteDirectoryAsync(Path directory, Progress progress) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+                return 0L;
+            }
+            TreeListing listing = list(directory);
+            ProgressTracker tracker = new ProgressTracker(progress, listing.files().size(), listing.totalBytes());
+            IO_POOL.submit(() -> listing.files().parallelStream().forEach(file -> {
+                long size = sizeOf(file);
+                uncheckedIO(() -> Files.deleteIfExists(file));
+                tracker.completed(file, size);
+            })).join();
+            for (Path dir : listing.directories()) {
+                uncheckedIO(() -> Files.deleteIfExists(dir));
+            }
+            return (long) listing.files().size();
+        }, IO_POOL);
+    }
+
+    /**
+     * 异步并行复制目录，文件内容使用 FileChannel.transferTo 零拷贝传输，并保留修改时间。
+     *
+     * @param source   源目录。
+     * @param target   目标目录，不存在时自动创建。
+     * @param progress 进度回调，在IO线程中调用，可以为null。
+     * @return 复制的字节数。
+     */
+    public static CompletableFuture<Long> copyDirectoryAsync(Path source, Path target, Progress progress) {
+        return CompletableFuture.supplyAsync(() -> copyTree(source, target, progress, false).copiedBytes(), IO_POOL);
+    }
+
+    /**
+     * 异步备份目录，备份到备份目录下以源目录名和时间命名的子目录中。
+     *
+     * @param source     源目录。
+     * @param backupRoot 备份根目录。
+     * @param progress   进度回调，在IO线程中调用，可以为null。
+     * @return 本次备份所在的目录。
+     */
+    public static CompletableFuture<Path> backupAsync(Path source, Path backupRoot, Progress progress) {
+        String name = source.getFileName() + "-" + BACKUP_TIME_FORMAT.format(LocalDateTime.now());
+        Path target = backupRoot.resolve(name);
+        return copyDirectoryAsync(source, target, progress).thenApply(bytes -> target);
+    }
+
+    /**
+     * 异步增量快照，只复制大小或修改时间发生变化的文件，目标中多出的文件不会被删除。
+     *
+     * @param source   源目录。
+     * @param target   快照目录，不存在时自动创建。
+     * @param progress 进度回调，在IO线程中调用，可以为null。
+     * @return 快照结果，包含复制与跳过的文件数量。
+     */
+    public static CompletableFuture<SnapshotResult> snapshotAsync(Path source, Path target, Progress progress) {
+        return CompletableFuture.supplyAsync(() -> copyTree(source, target, progress, true), IO_POOL);
+    }
+
+    /**
+     * 原子写入文件，先写入同目录下的临时文件再替换目标文件，读取方不会读到写了一半的文件。
+     * 可以从多个线程同时写入同一文件，最后完成替换的内容生效。
+     * 文件系统不支持原子替换时退化为普通替换。
+     *
+     * @param target 目标文件。
+     * @param data   文件内容。
+     * @param sync   同步到磁盘的方式。
+     * @throws IOException 如果写入失败，此时目标文件保持原样。
+     */
+    public static void writeAtomically(Path target, byte[] data, SyncMode sync) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        // 每次写入使用唯一的临时文件，多个线程同时写入同一目标时不会互相截断或移走对方的临时文件
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (sync != SyncMode.NONE) {
+                    channel.force(true);
+                }
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        if (sync == SyncMode.FILE_AND_DIRECTORY) {
+            // 同步目录项，保证断电后替换结果仍然存在，部分系统不支持打开目录，此时忽略
+            try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+                channel.force(true);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * 写入后同步到磁盘的方式。
+     */
+    public enum SyncMode {
+        /**
+         * 不主动同步，由操作系统决定何时落盘，速度最快。
+         */
+        NONE,
+        /**
+         * 替换前同步文件内容。
+         */
+        FILE,
+        /**
+         * 同步文件内容，并在替换后同步所在目录。
+         */
+        FILE_AND_DIRECTORY
+    }
+
+    /**
+     * 进度回调。
+     */
+    @FunctionalInterface
+    public interface Progress {
+        /**
+         * 单个文件处理完成。
+         *
+         * @param completedFiles 已处理的文件数量。
+         * @param totalFiles     文件总数。
+         * @param completedBytes 已处理的字节数。
+         * @param totalBytes     字节总数。
+         * @param current        刚处理完成的文件。
+         */
+        void update(long completedFiles, long totalFiles, long completedBytes, long totalBytes, Path current);
+    }
+
+    /**
+     * 复制或快照结果。
+     *
+     * @param copiedFiles  复制的文件数量。
+     * @param skippedFiles 未变化而跳过的文件数量。
+     * @param copiedBytes  复制的字节数。
+     */
+    public record SnapshotResult(long copiedFiles, long skippedFiles, long copiedBytes) {
+    }
+
+    /**
+     * 遍历结果，目录按由深到浅的顺序排列。
+     */
+    private record TreeListing(List<Path> files, List<Path> directories, long totalBytes) {
+    }
+
+    /**
+     * 线程安全的进度统计。
+     */
+    private static final class ProgressTracker {
+        private final Progress progress;
+        private final long totalFiles;
+        private final long totalBytes;
+        private final AtomicLong files = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+
+        private ProgressTracker(Progress progress, long totalFiles, long totalBytes) {
+            this.progress = progress;
+            this.totalFiles = totalFiles;
+            this.totalBytes = totalBytes;
+        }
+
+        private void completed(Path file, long size) {
+            long completedFiles = files.incrementAndGet();
+            long completedBytes = bytes.addAndGet(size);
+            if (progress != null) {
+                progress.update(completedFiles, totalFiles, completedBytes, totalBytes, file);
+            }
+        }
+    }
+
+    private static SnapshotResult copyTree(Path source, Path target, Progress progress, boolean incremental) {
+        TreeListing listing = list(source);
+        uncheckedIO(() -> Files.createDirectories(target));
+        // 遍历结果中目录由深到浅排列，反向创建保证父目录先于子目录
+        for (int i = listing.directories().size() - 1; i >= 0; i--) {
+            Path dir = target.resolve(source.relativize(listing.directories().get(i)).toString());
+            uncheckedIO(() -> Files.createDirectories(dir));
+        }
+        ProgressTracker tracker = new ProgressTracker(progress, listing.files().size(), listing.totalBytes());
+        AtomicLong copiedFiles = new AtomicLong();
+        AtomicLong skippedFiles = new AtomicLong();
+        AtomicLong copiedBytes = new AtomicLong();
+        IO_POOL.submit(() -> listing.files().parallelStream().forEach(file -> {
+            Path destination = target.resolve(source.relativize(file).toString());
+            uncheckedIO(() -> {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (incremental && isUnchanged(attributes, destination)) {
+                    skippedFiles.incrementAndGet();
+                } else {
+                    transfer(file, destination);
+                    Files.setLastModifiedTime(destination, attributes.lastModifiedTime());
+                    copiedFiles.incrementAndGet();
+                    copiedBytes.addAndGet(attributes.size());
+                }
+                tracker.completed(file, attributes.size());
+            });
+        })).join();
+        return new SnapshotResult(copiedFiles.get(), skippedFiles.get(), copiedBytes.get());
+    }
+
+    private static boolean isUnchanged(BasicFileAttributes attributes, Path destination) throws IOException {
+        if (!Files.exists(destination)) {
+            return false;
+        }
+        BasicFileAttributes existing = Files.readAttributes(destination, BasicFileAttributes.class);
+        return existing.size() == attributes.size() && existing.lastModifiedTime().equals(attributes.lastModifiedTime());
+    }
+
+    private static void transfer(Path file, Path destination) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(destination, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    private static TreeListing list(Path root) {
+        List<Path> files = new ArrayList<>();
+        List<Path> directories = new ArrayList<>();
+        long[] totalBytes = new long[1];
+        uncheckedIO(() -> Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                files.add(file);
+                totalBytes[0] += attrs.size();
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                directories.add(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        }));
+        return new TreeListing(files, directories, totalBytes[0]);
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static void uncheckedIO(IOAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOAction {
+        void run() throws IOException;
+    }
+
     /**
      * 安全删除文件或目录。
      * 该方法会尝试删除指定的文件或目录，如果遇到安全权限问题会捕获并抛出IOException。
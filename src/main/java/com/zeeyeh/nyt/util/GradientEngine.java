@@ -0,0 +1,531 @@
+package com.zeeyeh.nyt.util;
+
+import org.bukkit.ChatColor;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @author LeonKeiran
+ * @description 渐变色引擎，基于RGB整数计算，按长度缓存插值表，支持多个颜色节点
+ * @date 2026/10/17 11:40
+ */
+public final class GradientEngine {
+    public static final int FORMAT_OBFUSCATED = 1;
+    public static final int FORMAT_STRIKETHROUGH = 1 << 1;
+    public static final int FORMAT_UNDERLINE = 1 << 2;
+    public static final int FORMAT_BOLD = 1 << 3;
+    public static final int FORMAT_ITALIC = 1 << 4;
+    private static final char[] FORMAT_CODES = {'k', 'm', 'n', 'l', 'o'};
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final int MAX_CACHED_LENGTH = 256;
+    private static final LruCache<PaletteKey, Palette> PALETTES = new LruCache<>(256);
+    private static final double[] SRGB_TO_LINEAR = new double[256];
+
+    static {
+        for (int i = 0; i < SRGB_TO_LINEAR.length; i++) {
+            double c = i / 255D;
+            SRGB_TO_LINEAR[i] = c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+        }
+    }
+
+    private GradientEngine() {
+    }
+
+    /**
+     * 插值方式
+     */
+    public enum Interpolation {
+        /**
+         * 直接在sRGB空间线性插值
+         */
+        RGB,
+        /**
+         * 在线性RGB空间插值，亮度过渡更均匀
+         */
+        LINEAR_RGB,
+        /**
+         * 在HSV空间沿色相最短路径插值
+         */
+        HSV
+    }
+
+    /**
+     * 调色板缓存键，颜色节点按内容比较
+     */
+    private record PaletteKey(Interpolation mode, int[] stops) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PaletteKey key && key.mode == mode && Arrays.equals(key.stops, stops);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * mode.hashCode() + Arrays.hashCode(stops);
+        }
+    }
+
+    /**
+     * 获取调色板，相同的插值方式与颜色节点共享同一个实例
+     *
+     * @param mode  插值方式
+     * @param stops 颜色节点，RGB整数，至少一个
+     * @return 调色板
+     */
+    public static Palette palette(Interpolation mode, int... stops) {
+        if (stops.length == 0) {
+            throw new IllegalArgumentException("渐变颜色节点不能为空");
+        }
+        Palette palette = PALETTES.getIfPresent(new PaletteKey(mode, stops));
+        if (palette == null) {
+            int[] copy = stops.clone();
+            palette = new Palette(mode, copy);
+            PALETTES.put(new PaletteKey(mode, copy), palette);
+        }
+        return palette;
+    }
+
+    /**
+     * 获取调色板缓存
+     *
+     * @return 调色板缓存
+     */
+    public static LruCache<?, Palette> getPaletteCache() {
+        return PALETTES;
+    }
+
+    /**
+     * 解析16进制颜色
+     *
+     * @param color 颜色，格式为 RRGGBB 或 #RRGGBB
+     * @return RGB整数
+     */
+    public static int parseColor(String color) {
+        int offset = color.startsWith("#") ? 1 : 0;
+        int rgb = color.length() == offset + 6 ? ColorScanner.parseHex(color, offset) : -1;
+        if (rgb < 0) {
+            throw new IllegalArgumentException("无效的颜色值 \"" + color + "\"");
+        }
+        return rgb;
+    }
+
+    /**
+     * 渲染渐变文本为 §x§r§r§g§g§b§b 格式
+     * 文本中颜色替代字符开头的格式代码会被提取出来，并应用到每个字符上，重置代码之后的字符重新提取格式
+     * 渐变范围内的颜色代码会被忽略，不输出到结果中
+     *
+     * @param builder   输出缓冲区
+     * @param text      文本
+     * @param start     起始位置（包含）
+     * @param end       结束位置（不包含）
+     * @param colorChar 颜色替代字符
+     * @param palette   调色板
+     */
+    public static void render(StringBuilder builder, CharSequence text, int start, int end, char colorChar, Palette palette) {
+        int visible = visibleLength(text, start, end, colorChar);
+        if (visible == 0) {
+            return;
+        }
+        renderColors(builder, text, start, end, colorChar, visible, palette.colors(visible), 0);
+    }
+
+    /**
+     * 使用循环颜色表渲染渐变文本为 §x§r§r§g§g§b§b 格式，第i个字符使用颜色表中第 (offset + i) 个颜色
+     * 用于预先计算渐变流动动画的每一帧
+     *
+     * @param builder   输出缓冲区
+     * @param text      文本
+     * @param start     起始位置（包含）
+     * @param end       结束位置（不包含）
+     * @param colorChar 颜色替代字符
+     * @param colors    循环颜色表
+     * @param offset    颜色偏移
+     */
+    public static void renderShifted(StringBuilder builder, CharSequence text, int start, int end, char colorChar, int[] colors, int offset) {
+        if (colors.length == 0) {
+            throw new IllegalArgumentException("渐变颜色表不能为空");
+        }
+        int visible = visibleLength(text, start, end, colorChar);
+        if (visible > 0) {
+            renderColors(builder, text, start, end, colorChar, visible, colors, Math.floorMod(offset, colors.length));
+        }
+    }
+
+    private static void renderColors(StringBuilder builder, CharSequence text, int start, int end, char colorChar,
+                                     int visible, int[] colors, int offset) {
+        // 每个字符最多附加一个16进制颜色与全部格式代码
+        builder.ensureCapacity(builder.length() + visible * (16 + FORMAT_CODES.length * 2));
+        int index = offset;
+        for (int segmentStart = start; segmentStart < end; ) {
+            int segmentEnd = nextReset(text, segmentStart, end, colorChar);
+            int formats = collectFormats(text, segmentStart, segmentEnd, colorChar);
+            for (int i = segmentStart; i < segmentEnd; ) {
+                char c = text.charAt(i);
+                if (isCode(text, i, segmentEnd, colorChar)) {
+                    i += 2;
+                    continue;
+                }
+                appendColor(builder, colors[index]);
+                index = index + 1 == colors.length ? 0 : index + 1;
+                appendFormats(builder, formats);
+                builder.append(c);
+                if (Character.isHighSurrogate(c) && i + 1 < segmentEnd) {
+                    builder.append(text.charAt(i + 1));
+                    i += 2;
+                } else {
+                    i++;
+                }
+            }
+            segmentStart = segmentEnd + 2;
+        }
+    }
+
+    /**
+     * 判断指定位置是否为颜色替代字符开头的颜色、格式或重置代码
+     *
+     * @param text      文本
+     * @param index     位置
+     * @param end       结束位置（不包含）
+     * @param colorChar 颜色替代字符
+     * @return 是否为代码
+     */
+    public static boolean isCode(CharSequence text, int index, int end, char colorChar) {
+        return index + 1 < end && text.charAt(index) == colorChar && "0123456789abcdefklmnorx".indexOf(Character.toLowerCase(text.charAt(index + 1))) >= 0;
+    }
+
+    /**
+     * 计算渐变范围内需要着色的字符数量，代码不计入，代理对按一个字符计算
+     *
+     * @param text      文本
+     * @param start     起始位置（包含）
+     * @param end       结束位置（不包含）
+     * @param colorChar 颜色替代字符
+     * @return 字符数量
+     */
+    public static int visibleLength(CharSequence text, int start, int end, char colorChar) {
+        int visible = 0;
+        for (int i = start; i < end; ) {
+            if (isCode(text, i, end, colorChar)) {
+                i += 2;
+                continue;
+            }
+            i += Character.isHighSurrogate(text.charAt(i)) && i + 1 < end ? 2 : 1;
+            visible++;
+        }
+        return visible;
+    }
+
+    /**
+     * 查找下一个重置代码的位置
+     *
+     * @param text      文本
+     * @param start     起始位置（包含）
+     * @param end       结束位置（不包含）
+     * @param colorChar 颜色替代字符
+     * @return 重置代码的位置，不存在时返回结束位置
+     */
+    public static int nextReset(CharSequence text, int start, int end, char colorChar) {
+        for (int i = start; i < end; ) {
+            if (isCode(text, i, end, colorChar)) {
+                if (Character.toLowerCase(text.charAt(i + 1)) == 'r') {
+                    return i;
+                }
+                i += 2;
+                continue;
+            }
+            i++;
+        }
+        return end;
+    }
+
+    /**
+     * 提取范围内的格式代码
+     *
+     * @param text      文本
+     * @param start     起始位置（包含）
+     * @param end       结束位置（不包含）
+     * @param colorChar 颜色替代字符
+     * @return 格式标志位
+     */
+    public static int collectFormats(CharSequence text, int start, int end, char colorChar) {
+        int formats = 0;
+        for (int i = start; i < end; ) {
+            if (isCode(text, i, end, colorChar)) {
+                formats |= formatFlag(text.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            i++;
+        }
+        return formats;
+    }
+
+    /**
+     * 渲染渐变文本为 [#rrggbb] 标签格式
+     *
+     * @param builder 输出缓冲区
+     * @param text    文本
+     * @param start   起始位置（包含）
+     * @param end     结束位置（不包含）
+     * @param palette 调色板
+     * @param prefix  每个颜色标签后附加的格式内容
+     */
+    public static void renderTags(StringBuilder builder, CharSequence text, int start, int end, Palette palette, CharSequence prefix) {
+        int visible = Character.codePointCount(text, start, end);
+        if (visible == 0) {
+            return;
+        }
+        builder.ensureCapacity(builder.length() + visible * (11 + prefix.length()));
+        int[] colors = palette.colors(visible);
+        int index = 0;
+        for (int i = start; i < end; ) {
+            int rgb = colors[index++];
+            builder.append('[').append('#');
+            for (int shift = 20; shift >= 0; shift -= 4) {
+                builder.append(HEX_DIGITS[(rgb >> shift) & 0xF]);
+            }
+            builder.append(']').append(prefix);
+            char c = text.charAt(i);
+            builder.append(c);
+            if (Character.isHighSurrogate(c) && i + 1 < end) {
+                builder.append(text.charAt(i + 1));
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * 写入 §x§r§r§g§g§b§b 格式的颜色
+     *
+     * @param builder 输出缓冲区
+     * @param rgb     RGB整数
+     */
+    public static void appendColor(StringBuilder builder, int rgb) {
+        builder.append(ChatColor.COLOR_CHAR).append('x');
+        for (int shift = 20; shift >= 0; shift -= 4) {
+            builder.append(ChatColor.COLOR_CHAR).append(HEX_DIGITS[(rgb >> shift) & 0xF]);
+        }
+    }
+
+    /**
+     * 写入格式代码
+     *
+     * @param builder 输出缓冲区
+     * @param formats 格式标志位
+     */
+    public static void appendFormats(StringBuilder builder, int formats) {
+        for (int i = 0; formats != 0 && i < FORMAT_CODES.length; i++) {
+            if ((formats & (1 << i)) != 0) {
+                builder.append(ChatColor.COLOR_CHAR).append(FORMAT_CODES[i]);
+            }
+        }
+    }
+
+    /**
+     * 获取格式代码对应的标志位
+     *
+     * @param code 格式代码
+     * @return 标志位，不是格式代码时返回0
+     */
+    public static int formatFlag(char code) {
+        return switch (Character.toLowerCase(code)) {
+            case 'k' -> FORMAT_OBFUSCATED;
+            case 'm' -> FORMAT_STRIKETHROUGH;
+            case 'n' -> FORMAT_UNDERLINE;
+            case 'l' -> FORMAT_BOLD;
+            case 'o' -> FORMAT_ITALIC;
+            default -> 0;
+        };
+    }
+
+    /**
+     * 调色板，保存颜色节点并缓存每种长度的插值结果
+     */
+    public static final class Palette {
+        private final Interpolation mode;
+        private final int[] stops;
+        private final AtomicReferenceArray<int[]> tables = new AtomicReferenceArray<>(MAX_CACHED_LENGTH + 1);
+
+        private Palette(Interpolation mode, int[] stops) {
+            this.mode = mode;
+            this.stops = stops;
+        }
+
+        /**
+         * 获取指定长度的插值颜色表，返回的数组为共享数据，不可修改
+         *
+         * @param length 文本长度
+         * @return 颜色表
+         */
+        public int[] colors(int length) {
+            if (length > MAX_CACHED_LENGTH) {
+                return compute(length);
+            }
+            int[] table = tables.get(length);
+            if (table == null) {
+                table = compute(length);
+                tables.set(length, table);
+            }
+            return table;
+        }
+
+        /**
+         * 获取插值方式
+         *
+         * @return 插值方式
+         */
+        public Interpolation getMode() {
+            return mode;
+        }
+
+        /**
+         * 获取颜色节点
+         *
+         * @return 颜色节点副本
+         */
+        public int[] getStops() {
+            return stops.clone();
+        }
+
+        private int[] compute(int length) {
+            int[] table = new int[length];
+            int segments = stops.length - 1;
+            if (segments == 0 || length == 1) {
+                Arrays.fill(table, stops[0]);
+                return table;
+            }
+            int denominator = length - 1;
+            for (int i = 0; i < length; i++) {
+                // 将位置映射到所在的颜色区间，区间内的进度为 numerator / denominator
+                int scaled = i * segments;
+                int segment = Math.min(scaled / denominator, segments - 1);
+                int numerator = scaled - segment * denominator;
+                table[i] = interpolate(stops[segment], stops[segment + 1], numerator, denominator);
+            }
+            return table;
+        }
+
+        private int interpolate(int from, int to, int numerator, int denominator) {
+            return switch (mode) {
+                case RGB -> lerpRgb(from, to, numerator, denominator);
+                case LINEAR_RGB -> lerpLinear(from, to, (double) numerator / denominator);
+                case HSV -> lerpHsv(from, to, (double) numerator / denominator);
+            };
+        }
+    }
+
+    private static int lerpRgb(int from, int to, int numerator, int denominator) {
+        int red = lerpChannel((from >> 16) & 0xFF, (to >> 16) & 0xFF, numerator, denominator);
+        int green = lerpChannel((from >> 8) & 0xFF, (to >> 8) & 0xFF, numerator, denominator);
+        int blue = lerpChannel(from & 0xFF, to & 0xFF, numerator, denominator);
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    private static int lerpChannel(int from, int to, int numerator, int denominator) {
+        return from + Math.floorDiv(2 * (to - from) * numerator + denominator, 2 * denominator);
+    }
+
+    private static int lerpLinear(int from, int to, double progress) {
+        int red = linearChannel((from >> 16) & 0xFF, (to >> 16) & 0xFF, progress);
+        int green = linearChannel((from >> 8) & 0xFF, (to >> 8) & 0xFF, progress);
+        int blue = linearChannel(from & 0xFF, to & 0xFF, progress);
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    private static int linearChannel(int from, int to, double progress) {
+        double linear = SRGB_TO_LINEAR[from] + (SRGB_TO_LINEAR[to] - SRGB_TO_LINEAR[from]) * progress;
+        double srgb = linear <= 0.0031308 ? linear * 12.92 : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+        return clamp((int) Math.round(srgb * 255));
+    }
+
+    private static int lerpHsv(int from, int to, double progress) {
+        float[] start = toHsv(from);
+        float[] end = toHsv(to);
+        float hueDelta = end[0] - start[0];
+        if (hueDelta > 0.5F) {
+            hueDelta -= 1F;
+        } else if (hueDelta < -0.5F) {
+            hueDelta += 1F;
+        }
+        float hue = start[0] + (float) (hueDelta * progress);
+        hue -= (float) Math.floor(hue);
+        float saturation = start[1] + (float) ((end[1] - start[1]) * progress);
+        float value = start[2] + (float) ((end[2] - start[2]) * progress);
+        return fromHsv(hue, saturation, value);
+    }
+
+    private static float[] toHsv(int rgb) {
+        int red = (rgb >> 16) & 0xFF;
+        int green = (rgb >> 8) & 0xFF;
+        int blue = rgb & 0xFF;
+        int max = Math.max(red, Math.max(green, blue));
+        int min = Math.min(red, Math.min(green, blue));
+        float delta = max - min;
+        float hue = 0F;
+        if (delta > 0) {
+            if (max == red) {
+                hue = ((green - blue) / delta) / 6F;
+            } else if (max == green) {
+                hue = (2F + (blue - red) / delta) / 6F;
+            } else {
+                hue = (4F + (red - green) / delta) / 6F;
+            }
+            if (hue < 0) {
+                hue += 1F;
+            }
+        }
+        float saturation = max == 0 ? 0F : delta / max;
+        return new float[]{hue, saturation, max / 255F};
+    }
+
+    private static int fromHsv(float hue, float saturation, float value) {
+        float h = hue * 6F;
+        int sector = (int) Math.floor(h) % 6;
+        float f = h - (float) Math.floor(h);
+        float p = value * (1 - saturation);
+        float q = value * (1 - f * saturation);
+        float t = value * (1 - (1 - f) * saturation);
+        float red;
+        float green;
+        float blue;
+        switch (sector) {
+            case 0 -> {
+                red = value;
+                green = t;
+                blue = p;
+            }
+            case 1 -> {
+                red = q;
+                green = value;
+                blue = p;
+            }
+            case 2 -> {
+                red = p;
+                green = value;
+                blue = t;
+            }
+            case 3 -> {
+                red = p;
+                green = q;
+                blue = value;
+            }
+            case 4 -> {
+                red = t;
+                green = p;
+                blue = value;
+            }
+            default -> {
+                red = value;
+                green = p;
+                blue = q;
+            }
+        }
+        return (clamp(Math.round(red * 255)) << 16) | (clamp(Math.round(green * 255)) << 8) | clamp(Math.round(blue * 255));
+    }
+
+    private static int clamp(int channel) {
+        return Math.max(0, Math.min(255, channel));
+    }
+}
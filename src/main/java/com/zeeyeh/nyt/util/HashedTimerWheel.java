@@ -0,0 +1,228 @@
+package com.zeeyeh.nyt.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * @author LeonKeiran
+ * @description 哈希时间轮，按tick推进，所有定时任务共用一个tick任务
+ * 任意线程都可以添加或取消任务，任务在调用 {@link #advance()} 的线程中执行
+ * @date 2026/10/17 20:40
+ */
+public final class HashedTimerWheel {
+    private final List<Timeout>[] buckets;
+    private final int mask;
+    // 其他线程添加的任务，在下一次推进时放入对应的槽
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private volatile long tick;
+    private int size;
+
+    /**
+     * 构造函数，使用512个槽
+     */
+    public HashedTimerWheel() {
+        this(512);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param wheelSize 槽数量，会向上取整为2的幂
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(int wheelSize) {
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("时间轮槽数量必须大于0");
+        }
+        int capacity = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.buckets = new List[capacity];
+        for (int i = 0; i < capacity; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 添加定时任务
+     *
+     * @param delayTicks 延迟的tick数，小于1时在下一次推进时执行
+     * @param task       任务
+     * @return 任务句柄，可用于取消
+     */
+    public Timeout schedule(long delayTicks, Runnable task) {
+        return schedule(delayTicks, 0L, task);
+    }
+
+    /**
+     * 添加周期任务，每次执行后按周期重新放入时间轮，不会创建新的任务句柄
+     *
+     * @param delayTicks  首次执行的延迟tick数
+     * @param periodTicks 执行周期，小于1时只执行一次
+     * @param task        任务
+     * @return 任务句柄，可用于取消
+     */
+    public Timeout schedule(long delayTicks, long periodTicks, Runnable task) {
+        return start(create(delayTicks, periodTicks, task));
+    }
+
+    /**
+     * 创建周期任务但不放入时间轮，调用 {@link #start(Timeout)} 后才会执行
+     * 用于任务执行时需要读取自身句柄的场景，避免任务在句柄赋值前就在推进线程中执行
+     *
+     * @param delayTicks  首次执行的延迟tick数，从创建时开始计算
+     * @param periodTicks 执行周期，小于1时只执行一次
+     * @param task        任务
+     * @return 任务句柄
+     */
+    public Timeout create(long delayTicks, long periodTicks, Runnable task) {
+        return new Timeout(tick + Math.max(1L, delayTicks), Math.max(0L, periodTicks), task);
+    }
+
+    /**
+     * 将 {@link #create(long, long, Runnable)} 创建的任务放入时间轮
+     *
+     * @param timeout 任务句柄
+     * @return 任务句柄
+     */
+    public Timeout start(Timeout timeout) {
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 推进一个tick并执行到期的任务，应由同一个线程每tick调用一次
+     */
+    public void advance() {
+        long now = ++tick;
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (!timeout.isCancelled()) {
+                // 添加时落后的任务放入当前槽，本次推进即执行
+                buckets[(int) (Math.max(timeout.deadline, now) & mask)].add(timeout);
+                size++;
+            }
+        }
+        List<Timeout> bucket = buckets[(int) (now & mask)];
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Timeout> expired = null;
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Timeout entry = bucket.get(i);
+            if (entry.isCancelled()) {
+                size--;
+            } else if (entry.deadline <= now) {
+                if (expired == null) {
+                    expired = new ArrayList<>();
+                }
+                expired.add(entry);
+                size--;
+            } else {
+                bucket.set(kept++, entry);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+        if (expired != null) {
+            for (Timeout entry : expired) {
+                entry.run();
+                if (entry.period > 0 && !entry.isCancelled()) {
+                    entry.deadline = now + entry.period;
+                    buckets[(int) (entry.deadline & mask)].add(entry);
+                    size++;
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取已推进的tick数
+     *
+     * @return tick数
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * 获取等待执行的任务数量，包含已取消但尚未清理的任务，只能在推进线程中调用
+     *
+     * @return 任务数量
+     */
+    public int size() {
+        return size + pending.size();
+    }
+
+    /**
+     * 定时任务句柄
+     */
+    public static final class Timeout {
+        private final long period;
+        private final Runnable task;
+        // 只在推进线程中修改
+        private volatile long deadline;
+        private volatile boolean cancelled;
+        private volatile boolean expired;
+
+        private Timeout(long deadline, long period, Runnable task) {
+            this.deadline = deadline;
+            this.period = period;
+            this.task = task;
+        }
+
+        /**
+         * 取消任务，已执行的单次任务无法取消
+         *
+         * @return 是否取消成功
+         */
+        public boolean cancel() {
+            if ((expired && period == 0) || cancelled) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+
+        /**
+         * 判断任务是否已取消
+         *
+         * @return 是否已取消
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * 判断任务是否已执行
+         *
+         * @return 是否已执行
+         */
+        public boolean isExpired() {
+            return expired;
+        }
+
+        /**
+         * 获取任务下一次到期的tick
+         *
+         * @return 到期tick
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        private void run() {
+            if (cancelled) {
+                return;
+            }
+            expired = true;
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+}
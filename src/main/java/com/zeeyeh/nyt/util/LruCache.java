@@ -0,0 +1,276 @@
+package com.zeeyeh.nyt.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * @author LeonKeiran
+ * @description 有界LRU缓存，按访问顺序淘汰并统计命中、未命中与淘汰次数
+ * 可按键的哈希值分段加锁，多个线程同时访问时只竞争同一段的锁；每段独立按访问顺序淘汰
+ * 可开启二次准入，键第一次未命中时只记录不缓存，再次未命中时才放入缓存，避免一次性的内容挤出常用内容
+ * @date 2026/10/17 10:12
+ */
+public class LruCache<K, V> {
+    private final int maximumSize;
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    private final boolean secondSightingAdmission;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * 构造函数，初始化单段缓存
+     *
+     * @param maximumSize 最大缓存条目数
+     */
+    public LruCache(int maximumSize) {
+        this(maximumSize, 1, false);
+    }
+
+    /**
+     * 构造函数，初始化分段缓存
+     *
+     * @param maximumSize             最大缓存条目数，平均分配到每一段
+     * @param concurrency             分段数量，会向上取整为2的幂
+     * @param secondSightingAdmission 是否只缓存第二次未命中的键
+     */
+    @SuppressWarnings("unchecked")
+    public LruCache(int maximumSize, int concurrency, boolean secondSightingAdmission) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("缓存容量必须大于0");
+        }
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("缓存分段数量必须大于0");
+        }
+        // 分段数量为2的幂，且每段至少容纳一个条目
+        int count = 1;
+        while (count < concurrency && count * 2 <= maximumSize) {
+            count <<= 1;
+        }
+        this.maximumSize = maximumSize;
+        this.segments = new Segment[count];
+        int segmentSize = (maximumSize + count - 1) / count;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(segmentSize, secondSightingAdmission, evictions);
+        }
+        this.segmentMask = count - 1;
+        this.secondSightingAdmission = secondSightingAdmission;
+    }
+
+    /**
+     * 缓存分段，字段由entries锁保护
+     */
+    private static final class Segment<K, V> {
+        private final LinkedHashMap<K, V> entries;
+        // 只未命中过一次的键，按插入顺序淘汰，容量与缓存段相同
+        private final LinkedHashMap<K, Boolean> doorkeeper;
+
+        private Segment(int maximumSize, boolean secondSightingAdmission, LongAdder evictions) {
+            this.entries = new LinkedHashMap<>(Math.min(maximumSize, 256), 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    if (size() > maximumSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+            this.doorkeeper = !secondSightingAdmission ? null : new LinkedHashMap<>(Math.min(maximumSize, 256)) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Boolean> eldest) {
+                    return size() > maximumSize;
+                }
+            };
+        }
+    }
+
+    /**
+     * 获取缓存值，不存在时通过加载函数计算，开启二次准入时第一次未命中的结果不放入缓存
+     * 加载函数在锁外执行，并发未命中时可能重复计算，但结果保持一致
+     *
+     * @param key    缓存键
+     * @param loader 加载函数
+     * @return 缓存值
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Segment<K, V> segment = segmentFor(key);
+        V value;
+        synchronized (segment.entries) {
+            value = segment.entries.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        value = loader.apply(key);
+        if (value != null) {
+            synchronized (segment.entries) {
+                if (segment.doorkeeper == null || segment.doorkeeper.remove(key) != null) {
+                    segment.entries.put(key, value);
+                } else {
+                    segment.doorkeeper.put(key, Boolean.TRUE);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 获取缓存值，不存在时返回null
+     *
+     * @param key 缓存键
+     * @return 缓存值
+     */
+    public V getIfPresent(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        V value;
+        synchronized (segment.entries) {
+            value = segment.entries.get(key);
+        }
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * 放入缓存值，不经过二次准入
+     *
+     * @param key   缓存键
+     * @param value 缓存值
+     */
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment.entries) {
+            segment.entries.put(key, value);
+        }
+    }
+
+    /**
+     * 移除指定缓存
+     *
+     * @param key 缓存键
+     */
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment.entries) {
+            segment.entries.remove(key);
+        }
+    }
+
+    /**
+     * 清空缓存，统计数据保留
+     */
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment.entries) {
+                segment.entries.clear();
+                if (segment.doorkeeper != null) {
+                    segment.doorkeeper.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取缓存内容的副本，不影响访问顺序与统计
+     * 单段缓存按访问顺序从旧到新排列，分段缓存只保证每段内部的顺序
+     *
+     * @return 缓存内容副本
+     */
+    public Map<K, V> asMap() {
+        Map<K, V> copy = new LinkedHashMap<>();
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment.entries) {
+                copy.putAll(segment.entries);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * 获取当前缓存条目数
+     *
+     * @return 缓存条目数
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment.entries) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 获取最大缓存条目数
+     *
+     * @return 最大缓存条目数
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * 判断是否开启二次准入
+     *
+     * @return 是否开启二次准入
+     */
+    public boolean isSecondSightingAdmission() {
+        return secondSightingAdmission;
+    }
+
+    /**
+     * 获取命中次数
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 获取未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 获取淘汰次数
+     *
+     * @return 淘汰次数
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * 获取命中率
+     *
+     * @return 命中率，无访问时返回0
+     */
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 0D : (double) hitCount / total;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        if (segmentMask == 0) {
+            return segments[0];
+        }
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & segmentMask];
+    }
+}
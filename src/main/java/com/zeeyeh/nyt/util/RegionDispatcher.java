@@ -0,0 +1,183 @@
+package com.zeeyeh.nyt.util;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * @author LeonKeiran
+ * @description 区域线程调度器，将玩家相关操作交给玩家所在区域的线程执行，全局任务交给全局区域调度器
+ * 在Folia上各区域并行执行；在Paper上所有调度器都在主线程执行，当前线程已是目标线程时直接执行，不额外等待一个tick
+ * @date 2026/10/17 18:10
+ */
+public final class RegionDispatcher {
+    private static final boolean FOLIA = isClassPresent("io.papermc.paper.threadedregions.RegionizedServer");
+    // Folia默认以 2^4 x 2^4 个区块为一个区域单元，同一单元内的玩家通常由同一线程处理
+    private static final int REGION_SHIFT = 4;
+    private final Plugin plugin;
+
+    /**
+     * 构造函数
+     *
+     * @param plugin 插件实例
+     */
+    public RegionDispatcher(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * 区域单元，只用于广播分组
+     *
+     * @param world   世界
+     * @param regionX 区域单元X坐标
+     * @param regionZ 区域单元Z坐标
+     */
+    private record RegionKey(World world, int regionX, int regionZ) {
+    }
+
+    /**
+     * 判断当前服务器是否为Folia
+     *
+     * @return 是否为Folia
+     */
+    public static boolean isFolia() {
+        return FOLIA;
+    }
+
+    /**
+     * 在实体所在的线程执行任务，当前线程已拥有该实体时直接执行
+     * 实体已被移除时任务不会执行
+     *
+     * @param entity 实体
+     * @param task   任务
+     */
+    public void execute(Entity entity, Runnable task) {
+        if (Bukkit.isOwnedByCurrentRegion(entity)) {
+            task.run();
+            return;
+        }
+        schedule(entity, task);
+    }
+
+    /**
+     * 在实体所在的线程执行任务，任务总是在下一次调度时执行，用于合并同一tick内的多次写入
+     *
+     * @param entity 实体
+     * @param task   任务
+     */
+    public void schedule(Entity entity, Runnable task) {
+        entity.getScheduler().run(this.plugin, scheduled -> task.run(), null);
+    }
+
+    /**
+     * 在消息接收者所在的线程执行任务，玩家等实体交给实体所在的线程，控制台等其他接收者直接执行
+     *
+     * @param sender 消息接收者
+     * @param task   任务
+     */
+    public void execute(CommandSender sender, Runnable task) {
+        if (sender instanceof Entity entity) {
+            execute(entity, task);
+        } else {
+            task.run();
+        }
+    }
+
+    /**
+     * 在全局区域线程执行任务，当前线程已是全局区域线程时直接执行
+     *
+     * @param task 任务
+     */
+    public void executeGlobal(Runnable task) {
+        if (Bukkit.isGlobalTickThread()) {
+            task.run();
+            return;
+        }
+        Bukkit.getGlobalRegionScheduler().execute(this.plugin, task);
+    }
+
+    /**
+     * 在全局区域线程延迟执行任务
+     *
+     * @param task       任务
+     * @param delayTicks 延迟，单位tick，最少为1
+     * @return 任务句柄
+     */
+    public ScheduledTask runGlobalDelayed(Runnable task, long delayTicks) {
+        return Bukkit.getGlobalRegionScheduler().runDelayed(this.plugin, scheduled -> task.run(), Math.max(1L, delayTicks));
+    }
+
+    /**
+     * 在全局区域线程定时执行任务
+     *
+     * @param task        任务
+     * @param delayTicks  首次执行的延迟，单位tick，最少为1
+     * @param periodTicks 执行间隔，单位tick
+     * @return 任务句柄
+     */
+    public ScheduledTask runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        return Bukkit.getGlobalRegionScheduler().runAtFixedRate(this.plugin, scheduled -> task.run(),
+                Math.max(1L, delayTicks), periodTicks);
+    }
+
+    /**
+     * 按区域分批处理玩家，每批玩家在其所在区域的线程中处理
+     * Paper上所有玩家作为一批在主线程处理；Folia上按玩家位置分组，执行时已离开该区域的玩家单独交给其所在线程
+     *
+     * @param players 玩家
+     * @param batch   批处理函数，参数为同一线程拥有的玩家
+     */
+    public void executeBatches(Collection<? extends Player> players, Consumer<List<Player>> batch) {
+        List<Player> snapshot = List.copyOf(players);
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        if (!FOLIA) {
+            executeGlobal(() -> batch.accept(snapshot));
+            return;
+        }
+        Map<RegionKey, List<Player>> regions = new HashMap<>();
+        for (Player player : snapshot) {
+            // 在其他线程读取位置只用于分组，执行时会再次确认线程归属
+            Location location = player.getLocation();
+            RegionKey key = new RegionKey(location.getWorld(),
+                    location.getBlockX() >> (4 + REGION_SHIFT), location.getBlockZ() >> (4 + REGION_SHIFT));
+            regions.computeIfAbsent(key, ignored -> new ArrayList<>()).add(player);
+        }
+        regions.forEach((key, members) -> Bukkit.getRegionScheduler().execute(this.plugin, key.world(),
+                key.regionX() << REGION_SHIFT, key.regionZ() << REGION_SHIFT, () -> {
+                    List<Player> owned = new ArrayList<>(members.size());
+                    for (Player player : members) {
+                        if (Bukkit.isOwnedByCurrentRegion(player)) {
+                            owned.add(player);
+                        } else {
+                            schedule(player, () -> batch.accept(List.of(player)));
+                        }
+                    }
+                    if (!owned.isEmpty()) {
+                        batch.accept(owned);
+                    }
+                }));
+    }
+
+    private static boolean isClassPresent(String name) {
+        try {
+            Class.forName(name);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}